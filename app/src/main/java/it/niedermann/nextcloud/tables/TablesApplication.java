@@ -8,6 +8,7 @@ import androidx.appcompat.app.AppCompatDelegate;
 
 import it.niedermann.nextcloud.tables.repository.PreferencesRepository;
 import it.niedermann.nextcloud.tables.ui.util.CustomAppGlideModule;
+import it.niedermann.nextcloud.tables.ui.util.MarkdownCache;
 
 public class TablesApplication extends Application {
 
@@ -32,6 +33,14 @@ public class TablesApplication extends Application {
         Log.w(TAG, "--- Low memory: Clear Glide cache ---");
         CustomAppGlideModule.clearCache(this);
         Log.w(TAG, "--- Low memory: Clear debug log ---");
+        Log.w(TAG, "--- Low memory: Clear markdown cache ---");
+        MarkdownCache.onTrimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onTrimMemory(int level) {
+        super.onTrimMemory(level);
+        MarkdownCache.onTrimMemory(level);
     }
 
     private void enableStrictModeLogging() {
@@ -58,7 +67,7 @@ public class TablesApplication extends Application {
         CREATE_COLUMN(BuildConfig.DEBUG),
         DELETE_COLUMN(true),
         SHARE_TABLE(BuildConfig.DEBUG),
-        SEARCH_IN_TABLE(false),
+        SEARCH_IN_TABLE(true),
         ;
 
         public final boolean enabled;
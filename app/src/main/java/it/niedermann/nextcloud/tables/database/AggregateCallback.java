@@ -0,0 +1,200 @@
+package it.niedermann.nextcloud.tables.database;
+
+import static it.niedermann.nextcloud.tables.database.DataSearchCallback.referencesSelectionOption;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOptionAggregate;
+import it.niedermann.nextcloud.tables.database.entity.TableAggregate;
+
+/**
+ * Installs the triggers which incrementally maintain {@link TableAggregate}, {@link ColumnAggregate} and {@link SelectionOptionAggregate}.
+ * Each write of a {@link Row} or {@link Data} applies its delta, so synchronization and local changes are covered alike and reading an aggregate never scans the {@link Data}.
+ * Only a removed minimum or maximum requires a lookup of the remaining values of the {@link ColumnAggregate}.
+ * Room does not support declaring triggers, so they are (re)created each time the database is opened.
+ */
+class AggregateCallback extends RoomDatabase.Callback {
+
+    private static final String TAG = AggregateCallback.class.getSimpleName();
+
+    private static final String NOT_DELETED = "r.status IS NOT 'LOCAL_DELETED'";
+
+    private static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS aggregate_table_insert AFTER INSERT ON `Table` BEGIN " +
+                    "INSERT OR IGNORE INTO TableAggregate (tableId, rowCount) VALUES (NEW.id, 0); " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_column_insert AFTER INSERT ON `Column` BEGIN " +
+                    "INSERT OR IGNORE INTO ColumnAggregate (columnId, tableId, numberCount, sumValue) VALUES (NEW.id, NEW.tableId, 0, 0); " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_selection_option_insert AFTER INSERT ON SelectionOption BEGIN " +
+                    "INSERT OR IGNORE INTO SelectionOptionAggregate (selectionOptionId, columnId, valueCount) VALUES (NEW.id, NEW.columnId, " + countSelectionOption("NEW") + "); " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_selection_option_update AFTER UPDATE OF remoteId, columnId ON SelectionOption " +
+                    "WHEN OLD.remoteId IS NOT NEW.remoteId OR OLD.columnId != NEW.columnId BEGIN " +
+                    "UPDATE SelectionOptionAggregate SET columnId = NEW.columnId, valueCount = " + countSelectionOption("NEW") + " WHERE selectionOptionId = NEW.id; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_row_insert AFTER INSERT ON `Row` WHEN NEW.status IS NOT 'LOCAL_DELETED' BEGIN " +
+                    countRow("NEW", "+") + "; " +
+                    "END",
+            // Before the delete, because the Data of the Row is gone afterwards
+            "CREATE TRIGGER IF NOT EXISTS aggregate_row_delete BEFORE DELETE ON `Row` WHEN OLD.status IS NOT 'LOCAL_DELETED' BEGIN " +
+                    countRow("OLD", "-") + "; " +
+                    removeRow("OLD.id") + "; " +
+                    updateSelectionOptionsOfRow("OLD.id", "-") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_row_mark_deleted AFTER UPDATE OF status ON `Row` " +
+                    "WHEN OLD.status IS NOT 'LOCAL_DELETED' AND NEW.status IS 'LOCAL_DELETED' BEGIN " +
+                    countRow("NEW", "-") + "; " +
+                    removeRow("NEW.id") + "; " +
+                    updateSelectionOptionsOfRow("NEW.id", "-") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_row_unmark_deleted AFTER UPDATE OF status ON `Row` " +
+                    "WHEN OLD.status IS 'LOCAL_DELETED' AND NEW.status IS NOT 'LOCAL_DELETED' BEGIN " +
+                    countRow("NEW", "+") + "; " +
+                    addRow("NEW.id") + "; " +
+                    updateSelectionOptionsOfRow("NEW.id", "+") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_data_insert AFTER INSERT ON Data BEGIN " +
+                    addData("NEW") + "; " +
+                    updateSelectionOptionsOfData("NEW", "+") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS aggregate_data_update AFTER UPDATE ON Data " +
+                    "WHEN OLD.value IS NOT NEW.value OR OLD.numberValue IS NOT NEW.numberValue OR OLD.columnId != NEW.columnId OR OLD.rowId != NEW.rowId BEGIN " +
+                    removeData("OLD") + "; " +
+                    updateSelectionOptionsOfData("OLD", "-") + "; " +
+                    addData("NEW") + "; " +
+                    updateSelectionOptionsOfData("NEW", "+") + "; " +
+                    "END",
+            // Data deleted by the cascade of its Row has already been subtracted, the Row no longer exists then
+            "CREATE TRIGGER IF NOT EXISTS aggregate_data_delete AFTER DELETE ON Data BEGIN " +
+                    removeData("OLD") + "; " +
+                    updateSelectionOptionsOfData("OLD", "-") + "; " +
+                    "END",
+    };
+
+    @NonNull
+    private static String rowNotDeleted(@NonNull String rowId) {
+        return "EXISTS (SELECT 1 FROM `Row` r WHERE r.id = " + rowId + " AND " + NOT_DELETED + ")";
+    }
+
+    @NonNull
+    private static String countRow(@NonNull String reference, @NonNull String operator) {
+        return "UPDATE TableAggregate SET rowCount = rowCount " + operator + " 1 WHERE tableId = " + reference + ".tableId";
+    }
+
+    @NonNull
+    private static String countSelectionOption(@NonNull String reference) {
+        return "(SELECT COUNT(*) FROM Data d INNER JOIN `Row` r ON r.id = d.rowId " +
+                "WHERE d.columnId = " + reference + ".columnId AND " + NOT_DELETED + " AND " + referencesSelectionOption("d.value", reference + ".remoteId") + ")";
+    }
+
+    /**
+     * @param aggregate <code>MIN</code> or <code>MAX</code>
+     * @param exclusion condition for the {@link Data} which is about to be removed from the {@link ColumnAggregate}
+     */
+    @NonNull
+    private static String remaining(@NonNull String aggregate, @NonNull String exclusion) {
+        return "(SELECT " + aggregate + "(d.numberValue) FROM Data d INNER JOIN `Row` r ON r.id = d.rowId " +
+                "WHERE d.columnId = ColumnAggregate.columnId AND d.numberValue IS NOT NULL AND " + NOT_DELETED + " AND " + exclusion + ")";
+    }
+
+    @NonNull
+    private static String addData(@NonNull String reference) {
+        final var value = reference + ".numberValue";
+        return "UPDATE ColumnAggregate SET " +
+                "numberCount = numberCount + 1, " +
+                "sumValue = sumValue + " + value + ", " +
+                "minValue = MIN(COALESCE(minValue, " + value + "), " + value + "), " +
+                "maxValue = MAX(COALESCE(maxValue, " + value + "), " + value + ") " +
+                "WHERE columnId = " + reference + ".columnId AND " + value + " IS NOT NULL AND " + rowNotDeleted(reference + ".rowId");
+    }
+
+    @NonNull
+    private static String removeData(@NonNull String reference) {
+        final var value = reference + ".numberValue";
+        final var exclusion = "d.id != " + reference + ".id";
+        return "UPDATE ColumnAggregate SET " +
+                "numberCount = numberCount - 1, " +
+                "sumValue = sumValue - " + value + ", " +
+                "minValue = CASE WHEN minValue < " + value + " THEN minValue ELSE " + remaining("MIN", exclusion) + " END, " +
+                "maxValue = CASE WHEN maxValue > " + value + " THEN maxValue ELSE " + remaining("MAX", exclusion) + " END " +
+                "WHERE columnId = " + reference + ".columnId AND " + value + " IS NOT NULL AND " + rowNotDeleted(reference + ".rowId");
+    }
+
+    @NonNull
+    private static String ofRow(@NonNull String aggregate, @NonNull String rowId) {
+        return "(SELECT " + aggregate + "(d.numberValue) FROM Data d WHERE d.rowId = " + rowId + " AND d.columnId = ColumnAggregate.columnId)";
+    }
+
+    @NonNull
+    private static String columnsWithNumbersOfRow(@NonNull String rowId) {
+        return "columnId IN (SELECT d.columnId FROM Data d WHERE d.rowId = " + rowId + " AND d.numberValue IS NOT NULL)";
+    }
+
+    @NonNull
+    private static String addRow(@NonNull String rowId) {
+        final var min = ofRow("MIN", rowId);
+        final var max = ofRow("MAX", rowId);
+        return "UPDATE ColumnAggregate SET " +
+                "numberCount = numberCount + " + ofRow("COUNT", rowId) + ", " +
+                "sumValue = sumValue + " + ofRow("SUM", rowId) + ", " +
+                "minValue = MIN(COALESCE(minValue, " + min + "), " + min + "), " +
+                "maxValue = MAX(COALESCE(maxValue, " + max + "), " + max + ") " +
+                "WHERE " + columnsWithNumbersOfRow(rowId);
+    }
+
+    @NonNull
+    private static String removeRow(@NonNull String rowId) {
+        final var exclusion = "d.rowId != " + rowId;
+        return "UPDATE ColumnAggregate SET " +
+                "numberCount = numberCount - " + ofRow("COUNT", rowId) + ", " +
+                "sumValue = sumValue - " + ofRow("SUM", rowId) + ", " +
+                "minValue = CASE WHEN minValue < " + ofRow("MIN", rowId) + " THEN minValue ELSE " + remaining("MIN", exclusion) + " END, " +
+                "maxValue = CASE WHEN maxValue > " + ofRow("MAX", rowId) + " THEN maxValue ELSE " + remaining("MAX", exclusion) + " END " +
+                "WHERE " + columnsWithNumbersOfRow(rowId);
+    }
+
+    @NonNull
+    private static String updateSelectionOptionsOfData(@NonNull String reference, @NonNull String operator) {
+        return "UPDATE SelectionOptionAggregate SET valueCount = valueCount " + operator + " 1 " +
+                "WHERE selectionOptionId IN (SELECT o.id FROM SelectionOption o WHERE o.columnId = " + reference + ".columnId AND " + referencesSelectionOption(reference + ".value", "o.remoteId") + ") " +
+                "AND " + rowNotDeleted(reference + ".rowId");
+    }
+
+    @NonNull
+    private static String updateSelectionOptionsOfRow(@NonNull String rowId, @NonNull String operator) {
+        return "UPDATE SelectionOptionAggregate SET valueCount = valueCount " + operator + " " +
+                "(SELECT COUNT(*) FROM Data d INNER JOIN SelectionOption o ON o.id = SelectionOptionAggregate.selectionOptionId " +
+                "WHERE d.rowId = " + rowId + " AND d.columnId = o.columnId AND " + referencesSelectionOption("d.value", "o.remoteId") + ") " +
+                "WHERE columnId IN (SELECT d.columnId FROM Data d WHERE d.rowId = " + rowId + ")";
+    }
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        super.onOpen(db);
+        Log.v(TAG, "Installing " + TRIGGERS.length + " triggers");
+        for (final var trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+
+        // Entities which have been written before the triggers existed
+        db.execSQL("INSERT INTO TableAggregate (tableId, rowCount) " +
+                "SELECT t.id, (SELECT COUNT(*) FROM `Row` r WHERE r.tableId = t.id AND " + NOT_DELETED + ") FROM `Table` t " +
+                "WHERE NOT EXISTS (SELECT 1 FROM TableAggregate a WHERE a.tableId = t.id)");
+        db.execSQL("INSERT INTO ColumnAggregate (columnId, tableId, numberCount, sumValue, minValue, maxValue) " +
+                "SELECT c.id, c.tableId, COUNT(v.numberValue), COALESCE(SUM(v.numberValue), 0), MIN(v.numberValue), MAX(v.numberValue) FROM `Column` c " +
+                "LEFT JOIN (SELECT d.columnId, d.numberValue FROM Data d INNER JOIN `Row` r ON r.id = d.rowId WHERE " + NOT_DELETED + ") v ON v.columnId = c.id " +
+                "WHERE NOT EXISTS (SELECT 1 FROM ColumnAggregate a WHERE a.columnId = c.id) " +
+                "GROUP BY c.id");
+        db.execSQL("INSERT INTO SelectionOptionAggregate (selectionOptionId, columnId, valueCount) " +
+                "SELECT o.id, o.columnId, " + countSelectionOption("o") + " FROM SelectionOption o " +
+                "WHERE NOT EXISTS (SELECT 1 FROM SelectionOptionAggregate a WHERE a.selectionOptionId = o.id)");
+    }
+}
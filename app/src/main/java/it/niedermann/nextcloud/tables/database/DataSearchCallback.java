@@ -0,0 +1,81 @@
+package it.niedermann.nextcloud.tables.database;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.DataSearch;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+
+/**
+ * Installs the triggers which keep {@link DataSearch} in sync with {@link Data} and the labels of {@link SelectionOption}s.
+ * Room does not support declaring triggers, so they are (re)created each time the database is opened.
+ */
+class DataSearchCallback extends RoomDatabase.Callback {
+
+    private static final String TAG = DataSearchCallback.class.getSimpleName();
+
+    private static final String CONTENT = "CASE WHEN c.type = 'selection' " +
+            "THEN COALESCE((SELECT group_concat(o.label, ' ') FROM SelectionOption o WHERE o.columnId = d.columnId AND " + referencesSelectionOption("d.value", "o.remoteId") + "), '') " +
+            "ELSE COALESCE(d.value, '') END";
+
+    private static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS data_search_data_insert AFTER INSERT ON Data BEGIN " +
+                    index("d.id = NEW.id") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS data_search_data_update AFTER UPDATE OF value, columnId, rowId ON Data " +
+                    "WHEN OLD.value IS NOT NEW.value OR OLD.columnId != NEW.columnId OR OLD.rowId != NEW.rowId BEGIN " +
+                    "DELETE FROM DataSearch WHERE rowid = OLD.id; " +
+                    index("d.id = NEW.id") + "; " +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS data_search_data_delete AFTER DELETE ON Data BEGIN " +
+                    "DELETE FROM DataSearch WHERE rowid = OLD.id; " +
+                    "END",
+            createSelectionOptionTrigger("insert", "INSERT", "NEW", ""),
+            createSelectionOptionTrigger("update", "UPDATE OF label", "NEW", "WHEN OLD.label IS NOT NEW.label "),
+            createSelectionOptionTrigger("delete", "DELETE", "OLD", ""),
+    };
+
+    /**
+     * Selection values are (lists of) remote ids of {@link SelectionOption}s, e.g. <code>1</code> or <code>[1,2]</code>
+     */
+    @NonNull
+    static String referencesSelectionOption(@NonNull String value, @NonNull String remoteId) {
+        return "',' || REPLACE(REPLACE(REPLACE(COALESCE(" + value + ", ''), '[', ''), ']', ''), ' ', '') || ',' LIKE '%,' || " + remoteId + " || ',%'";
+    }
+
+    @NonNull
+    private static String index(@NonNull String condition) {
+        return "INSERT INTO DataSearch (rowid, accountId, tableId, localRowId, content) " +
+                "SELECT d.id, d.accountId, c.tableId, d.rowId, " + CONTENT + " FROM Data d " +
+                "INNER JOIN `Column` c ON c.id = d.columnId " +
+                "WHERE " + condition;
+    }
+
+    /**
+     * Reindexes the {@link Data} referencing the changed {@link SelectionOption}
+     */
+    @NonNull
+    private static String createSelectionOptionTrigger(@NonNull String name, @NonNull String event, @NonNull String reference, @NonNull String condition) {
+        final var referencingData = "d.columnId = " + reference + ".columnId AND " + referencesSelectionOption("d.value", reference + ".remoteId");
+        return "CREATE TRIGGER IF NOT EXISTS data_search_selection_option_" + name + " AFTER " + event + " ON SelectionOption " + condition + "BEGIN " +
+                "DELETE FROM DataSearch WHERE rowid IN (SELECT d.id FROM Data d WHERE " + referencingData + "); " +
+                index(referencingData) + "; " +
+                "END";
+    }
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        super.onOpen(db);
+        Log.v(TAG, "Installing " + TRIGGERS.length + " triggers");
+        for (final var trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+
+        // Data which has been written before the triggers existed
+        db.execSQL(index("NOT EXISTS (SELECT 1 FROM DataSearch)"));
+    }
+}
@@ -0,0 +1,68 @@
+package it.niedermann.nextcloud.tables.database;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.room.RoomDatabase;
+import androidx.sqlite.db.SupportSQLiteDatabase;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
+
+/**
+ * Installs the triggers which record each change of a {@link Row} or its {@link Data} as {@link RowChange}.
+ * Each change replaces the previous entry of its {@link Row}, so there is at most one entry per {@link Row}, while the <code>AUTOINCREMENT</code> sequence number still advances.
+ * Room does not support declaring triggers, so they are (re)created each time the database is opened.
+ */
+class RowChangeCallback extends RoomDatabase.Callback {
+
+    private static final String TAG = RowChangeCallback.class.getSimpleName();
+
+    private static final String[] TRIGGERS = {
+            "CREATE TRIGGER IF NOT EXISTS row_change_row_insert AFTER INSERT ON `Row` BEGIN " +
+                    replaceRowChange("NEW.tableId", "NEW.id", RowChange.OP_INSERT) +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS row_change_row_update AFTER UPDATE ON `Row` BEGIN " +
+                    replaceRowChange("NEW.tableId", "NEW.id", RowChange.OP_UPDATE) +
+                    "END",
+            "CREATE TRIGGER IF NOT EXISTS row_change_row_delete AFTER DELETE ON `Row` BEGIN " +
+                    replaceRowChange("OLD.tableId", "OLD.id", RowChange.OP_DELETE) +
+                    "END",
+            createDataTrigger("insert", "INSERT", "NEW"),
+            createDataTrigger("update", "UPDATE", "NEW"),
+            createDataTrigger("delete", "DELETE", "OLD"),
+    };
+
+    /**
+     * Deletes the previous entry explicitly instead of using <code>INSERT OR REPLACE</code>, because the <code>OR ABORT</code> of the statements generated by Room would override the conflict clause of the trigger.
+     */
+    @NonNull
+    private static String replaceRowChange(@NonNull String tableId, @NonNull String rowId, @NonNull String op) {
+        return "DELETE FROM RowChange WHERE rowId = " + rowId + "; " +
+                "INSERT INTO RowChange (tableId, rowId, op) VALUES (" + tableId + ", " + rowId + ", '" + op + "'); ";
+    }
+
+    /**
+     * {@link Data} which is deleted together with its {@link Row} does not match any {@link Row} anymore and is therefore not recorded.
+     */
+    @NonNull
+    private static String createDataTrigger(@NonNull String name, @NonNull String event, @NonNull String reference) {
+        return "CREATE TRIGGER IF NOT EXISTS row_change_data_" + name + " AFTER " + event + " ON Data " +
+                "WHEN EXISTS (SELECT 1 FROM `Row` r WHERE r.id = " + reference + ".rowId) BEGIN " +
+                replaceRowChange("(SELECT r.tableId FROM `Row` r WHERE r.id = " + reference + ".rowId)", reference + ".rowId", RowChange.OP_UPDATE) +
+                "END";
+    }
+
+    @Override
+    public void onOpen(@NonNull SupportSQLiteDatabase db) {
+        super.onOpen(db);
+        Log.v(TAG, "Installing " + TRIGGERS.length + " triggers");
+        for (final var trigger : TRIGGERS) {
+            db.execSQL(trigger);
+        }
+
+        // Observers start from the latest sequence number, so previous entries are of no use after a restart
+        db.execSQL("DELETE FROM RowChange");
+    }
+}
@@ -12,17 +12,28 @@ import it.niedermann.nextcloud.tables.database.converter.DBStatusConverter;
 import it.niedermann.nextcloud.tables.database.converter.InstantConverter;
 import it.niedermann.nextcloud.tables.database.converter.VersionConverter;
 import it.niedermann.nextcloud.tables.database.dao.AccountDao;
+import it.niedermann.nextcloud.tables.database.dao.AggregateDao;
 import it.niedermann.nextcloud.tables.database.dao.ColumnDao;
 import it.niedermann.nextcloud.tables.database.dao.DataDao;
+import it.niedermann.nextcloud.tables.database.dao.DataSearchDao;
+import it.niedermann.nextcloud.tables.database.dao.ReconciliationDao;
+import it.niedermann.nextcloud.tables.database.dao.RowChangeDao;
 import it.niedermann.nextcloud.tables.database.dao.RowDao;
 import it.niedermann.nextcloud.tables.database.dao.SelectionOptionDao;
 import it.niedermann.nextcloud.tables.database.dao.TableDao;
+import it.niedermann.nextcloud.tables.database.dao.TableSyncStateDao;
 import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
 import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.DataSearch;
 import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
 import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOptionAggregate;
 import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.database.entity.TableAggregate;
+import it.niedermann.nextcloud.tables.database.entity.TableSyncState;
 
 @Database(
         entities = {
@@ -31,8 +42,14 @@ import it.niedermann.nextcloud.tables.database.entity.Table;
                 Column.class,
                 Row.class,
                 Data.class,
-                SelectionOption.class
-        }, version = 1
+                SelectionOption.class,
+                TableSyncState.class,
+                RowChange.class,
+                DataSearch.class,
+                TableAggregate.class,
+                ColumnAggregate.class,
+                SelectionOptionAggregate.class
+        }, version = 7
 )
 @TypeConverters({
         InstantConverter.class,
@@ -59,6 +76,9 @@ public abstract class TablesDatabase extends RoomDatabase {
                 )
                 .fallbackToDestructiveMigrationOnDowngrade()
                 .fallbackToDestructiveMigration()
+                .addCallback(new RowChangeCallback())
+                .addCallback(new DataSearchCallback())
+                .addCallback(new AggregateCallback())
                 .build();
     }
 
@@ -73,4 +93,14 @@ public abstract class TablesDatabase extends RoomDatabase {
     public abstract RowDao getRowDao();
 
     public abstract DataDao getDataDao();
+
+    public abstract TableSyncStateDao getTableSyncStateDao();
+
+    public abstract RowChangeDao getRowChangeDao();
+
+    public abstract DataSearchDao getDataSearchDao();
+
+    public abstract AggregateDao getAggregateDao();
+
+    public abstract ReconciliationDao getReconciliationDao();
 }
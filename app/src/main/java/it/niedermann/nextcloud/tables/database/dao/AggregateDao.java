@@ -0,0 +1,38 @@
+package it.niedermann.nextcloud.tables.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.MapInfo;
+import androidx.room.Query;
+
+import java.util.List;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOptionAggregate;
+import it.niedermann.nextcloud.tables.database.entity.TableAggregate;
+import it.niedermann.nextcloud.tables.model.SelectionOptionCount;
+
+/**
+ * {@link TableAggregate}, {@link ColumnAggregate} and {@link SelectionOptionAggregate} are written by triggers only, therefore this DAO is read only.
+ */
+@Dao
+public interface AggregateDao {
+
+    @MapInfo(keyColumn = "tableId", valueColumn = "rowCount")
+    @Query("SELECT a.tableId, a.rowCount FROM TableAggregate a " +
+            "INNER JOIN `Table` t ON t.id = a.tableId " +
+            "WHERE t.accountId = :accountId")
+    LiveData<Map<Long, Long>> getRowCounts$(long accountId);
+
+    @Query("SELECT * FROM ColumnAggregate WHERE tableId = :tableId")
+    LiveData<List<ColumnAggregate>> getColumnAggregates$(long tableId);
+
+    @Query("SELECT a.columnId, o.label, a.valueCount FROM SelectionOptionAggregate a " +
+            "INNER JOIN SelectionOption o ON o.id = a.selectionOptionId " +
+            "INNER JOIN `Column` c ON c.id = a.columnId " +
+            "WHERE c.tableId = :tableId " +
+            "AND o.status != 'LOCAL_DELETED' " +
+            "ORDER BY a.valueCount DESC, o.label")
+    LiveData<List<SelectionOptionCount>> getSelectionOptionCounts$(long tableId);
+}
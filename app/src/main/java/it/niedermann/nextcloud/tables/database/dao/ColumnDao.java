@@ -5,12 +5,14 @@ import androidx.room.Dao;
 import androidx.room.MapInfo;
 import androidx.room.Query;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
 import it.niedermann.nextcloud.tables.database.DBStatus;
 import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 
 @Dao
 public interface ColumnDao extends GenericDao<Column> {
@@ -19,6 +21,10 @@ public interface ColumnDao extends GenericDao<Column> {
             "WHERE id IN (:ids)")
     List<Column> getColumns(Collection<Long> ids);
 
+    @Query("SELECT * FROM `Column` " +
+            "WHERE accountId = :accountId")
+    List<Column> getColumns(long accountId);
+
     @Query("SELECT * FROM `Column` " +
             "WHERE accountId = :accountId " +
             "AND status = :status")
@@ -36,6 +42,52 @@ public interface ColumnDao extends GenericDao<Column> {
             "ORDER BY orderWeight DESC")
     List<Column> getNotDeletedColumns(long tableId);
 
+    /**
+     * @see #getNotDeletedColumnsWithSelectionOptions(long)
+     */
+    @Query("SELECT * FROM `Column` c " +
+            "LEFT JOIN SelectionOption s " +
+            "ON s.columnId = c.id " +
+            "AND s.status != 'LOCAL_DELETED' " +
+            "WHERE c.tableId = :tableId " +
+            "AND c.status != 'LOCAL_DELETED' " +
+            "ORDER BY c.orderWeight DESC")
+    Map<Column, List<SelectionOption>> getNotDeletedColumnsAndSelectionOptions(long tableId);
+
+    /**
+     * @see #getColumnsWithSelectionOptions(long, DBStatus)
+     */
+    @Query("SELECT * FROM `Column` c " +
+            "LEFT JOIN SelectionOption s " +
+            "ON s.columnId = c.id " +
+            "WHERE c.accountId = :accountId " +
+            "AND c.status = :status")
+    Map<Column, List<SelectionOption>> getColumnsAndSelectionOptions(long accountId, DBStatus status);
+
+    /**
+     * @return not deleted {@link Column}s including their not deleted {@link SelectionOption}s, loaded in one query
+     */
+    default List<Column> getNotDeletedColumnsWithSelectionOptions(long tableId) {
+        return withSelectionOptions(getNotDeletedColumnsAndSelectionOptions(tableId));
+    }
+
+    /**
+     * @return {@link Column}s including all their {@link SelectionOption}s, loaded in one query
+     */
+    default List<Column> getColumnsWithSelectionOptions(long accountId, DBStatus status) {
+        return withSelectionOptions(getColumnsAndSelectionOptions(accountId, status));
+    }
+
+    private static List<Column> withSelectionOptions(Map<Column, List<SelectionOption>> columnsAndSelectionOptions) {
+        final var columns = new ArrayList<Column>(columnsAndSelectionOptions.size());
+        for (final var entry : columnsAndSelectionOptions.entrySet()) {
+            final var column = entry.getKey();
+            column.setSelectionOptions(entry.getValue());
+            columns.add(column);
+        }
+        return columns;
+    }
+
     @MapInfo(keyColumn = "id", valueColumn = "orderWeight")
     @Query("SELECT id, orderWeight FROM `Column` " +
             "WHERE tableId = :tableId " +
@@ -45,14 +97,9 @@ public interface ColumnDao extends GenericDao<Column> {
 
     @MapInfo(keyColumn = "remoteId", valueColumn = "id")
     @Query("SELECT remoteId, id FROM `Column` " +
-            "WHERE accountId = :accountId " +
-            "AND remoteId IN (:remoteIds)")
-    Map<Long, Long> getColumnRemoteAndLocalIds(long accountId, Collection<Long> remoteIds);
-
-    @Query("DELETE FROM `Column` " +
             "WHERE tableId = :tableId " +
-            "AND remoteId NOT IN (:remoteIds)")
-    void deleteExcept(long tableId, Collection<Long> remoteIds);
+            "AND remoteId IS NOT NULL")
+    Map<Long, Long> getColumnRemoteAndLocalIds(long tableId);
 
     @Query("UPDATE `Column` " +
             "SET orderWeight = :orderWeight, status = 'LOCAL_EDITED' " +
@@ -4,9 +4,11 @@ import androidx.lifecycle.LiveData;
 import androidx.room.Dao;
 import androidx.room.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.model.DataCoordinates;
 
 @Dao
 public interface DataDao extends GenericDao<Data> {
@@ -29,6 +31,12 @@ public interface DataDao extends GenericDao<Data> {
             "ORDER BY r.remoteId, c.orderWeight")
     LiveData<List<Data>> getData(long tableId);
 
+    @Query("SELECT * FROM Data d WHERE d.rowId IN (:rowIds)")
+    List<Data> getDataForRows(Collection<Long> rowIds);
+
+    @Query("SELECT d.id, d.rowId, d.columnId FROM Data d WHERE d.rowId IN (:rowIds)")
+    List<DataCoordinates> getDataCoordinatesForRows(Collection<Long> rowIds);
+
     @Query("SELECT * FROM Data d WHERE d.columnId = :columnId AND d.rowId = :rowId")
     Data getDataForCoordinates(long columnId, long rowId);
 
@@ -0,0 +1,44 @@
+package it.niedermann.nextcloud.tables.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.database.entity.DataSearch;
+import it.niedermann.nextcloud.tables.model.SearchResult;
+
+/**
+ * {@link DataSearch} is written by triggers only, therefore this DAO is read only.
+ * Results are paged in index order, which does not require sorting all matches. Each page carries the <code>matchinfo</code> of its results, so it can be ranked by relevance afterwards.
+ */
+@Dao
+public interface DataSearchDao {
+
+    /**
+     * Amount of phrases, amount of columns and for each phrase and column the hits in this row, the hits in all rows and the rows with hits
+     */
+    String MATCH_INFO_FORMAT = "pcx";
+
+    String SELECT_SEARCH_RESULT = "SELECT s.rowid AS dataId, s.tableId, s.localRowId AS rowId, s.content, t.title AS tableTitle, t.emoji AS tableEmoji, " +
+            "matchinfo(DataSearch, '" + MATCH_INFO_FORMAT + "') AS matchInfo " +
+            "FROM DataSearch s " +
+            "INNER JOIN `Row` r ON r.id = s.localRowId " +
+            "INNER JOIN `Table` t ON t.id = s.tableId " +
+            "WHERE s.content MATCH :query " +
+            "AND r.status != 'LOCAL_DELETED' " +
+            "AND t.status != 'LOCAL_DELETED' ";
+
+    String PAGE = "ORDER BY s.rowid " +
+            "LIMIT :limit OFFSET :offset";
+
+    @Query(SELECT_SEARCH_RESULT +
+            "AND s.accountId = :accountId " +
+            PAGE)
+    List<SearchResult> search(long accountId, String query, int limit, int offset);
+
+    @Query(SELECT_SEARCH_RESULT +
+            "AND s.tableId = :tableId " +
+            PAGE)
+    List<SearchResult> searchInTable(long tableId, String query, int limit, int offset);
+}
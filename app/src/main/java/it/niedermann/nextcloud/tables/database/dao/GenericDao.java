@@ -4,6 +4,8 @@ import androidx.room.Delete;
 import androidx.room.Insert;
 import androidx.room.Update;
 
+import java.util.List;
+
 import it.niedermann.nextcloud.tables.database.entity.AbstractEntity;
 
 public interface GenericDao<T extends AbstractEntity> {
@@ -15,10 +17,22 @@ public interface GenericDao<T extends AbstractEntity> {
     @Insert
     long[] insert(T... entity);
 
+    /**
+     * Inserts all given entities using one reused prepared statement.
+     */
+    @Insert
+    long[] insert(List<T> entities);
+
     @SuppressWarnings("unchecked")
     @Update
     void update(T... entity);
 
+    /**
+     * Updates all given entities using one reused prepared statement.
+     */
+    @Update
+    void update(List<T> entities);
+
     @SuppressWarnings("unchecked")
     @Delete
     void delete(T... entity);
@@ -0,0 +1,98 @@
+package it.niedermann.nextcloud.tables.database.dao;
+
+import androidx.annotation.NonNull;
+import androidx.room.Dao;
+import androidx.room.RoomDatabase;
+import androidx.room.Transaction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+import it.niedermann.nextcloud.tables.database.entity.Table;
+
+/**
+ * Deletes local entities whose remote counterpart has not been fetched anymore.
+ * The fetched remote IDs are staged in a temporary table and the stale entities are deleted with one anti join, so the amount of remote IDs is not limited by the maximum number of bind variables of SQLite.
+ * Entities which have not been pushed yet (no remote ID) are kept.
+ * Temporary tables are only visible to the connection which created them, therefore staging and deleting happen within one transaction.
+ */
+@Dao
+public abstract class ReconciliationDao {
+
+    private static final String CREATE_STAGING = "CREATE TEMP TABLE IF NOT EXISTS RemoteIdStaging (remoteId INTEGER PRIMARY KEY)";
+    private static final String CLEAR_STAGING = "DELETE FROM temp.RemoteIdStaging";
+    private static final String INSERT_STAGING = "INSERT OR IGNORE INTO temp.RemoteIdStaging (remoteId) VALUES (?)";
+
+    private final RoomDatabase db;
+
+    public ReconciliationDao(@NonNull RoomDatabase db) {
+        this.db = db;
+    }
+
+    /**
+     * @return amount of deleted {@link Table}s
+     */
+    @Transaction
+    public int deleteStaleTables(long accountId, @NonNull Collection<Long> fetchedRemoteIds) {
+        return deleteStale("DELETE FROM `Table` WHERE accountId = ? AND " + notStaged("`Table`"), accountId, fetchedRemoteIds);
+    }
+
+    /**
+     * @return amount of deleted {@link Column}s
+     */
+    @Transaction
+    public int deleteStaleColumns(long tableId, @NonNull Collection<Long> fetchedRemoteIds) {
+        return deleteStale("DELETE FROM `Column` WHERE tableId = ? AND " + notStaged("`Column`"), tableId, fetchedRemoteIds);
+    }
+
+    /**
+     * @return amount of deleted {@link SelectionOption}s
+     */
+    @Transaction
+    public int deleteStaleSelectionOptions(long columnId, @NonNull Collection<Long> fetchedRemoteIds) {
+        return deleteStale("DELETE FROM SelectionOption WHERE columnId = ? AND " + notStaged("SelectionOption"), columnId, fetchedRemoteIds);
+    }
+
+    /**
+     * @return amount of deleted {@link Row}s
+     */
+    @Transaction
+    public int deleteStaleRows(long tableId, @NonNull Collection<Long> fetchedRemoteIds) {
+        return deleteStale("DELETE FROM `Row` WHERE tableId = ? AND " + notStaged("`Row`"), tableId, fetchedRemoteIds);
+    }
+
+    @NonNull
+    private static String notStaged(@NonNull String table) {
+        return table + ".remoteId IS NOT NULL AND NOT EXISTS (SELECT 1 FROM temp.RemoteIdStaging s WHERE s.remoteId = " + table + ".remoteId)";
+    }
+
+    private int deleteStale(@NonNull String deleteSql, long parentId, @NonNull Collection<Long> fetchedRemoteIds) {
+        final var database = db.getOpenHelper().getWritableDatabase();
+        database.execSQL(CREATE_STAGING);
+        database.execSQL(CLEAR_STAGING);
+
+        try {
+            try (final var insert = db.compileStatement(INSERT_STAGING)) {
+                for (final var remoteId : fetchedRemoteIds) {
+                    if (remoteId != null) {
+                        insert.bindLong(1, remoteId);
+                        insert.executeInsert();
+                    }
+                }
+            }
+
+            try (final var delete = db.compileStatement(deleteSql)) {
+                delete.bindLong(1, parentId);
+                return delete.executeUpdateDelete();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            database.execSQL(CLEAR_STAGING);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package it.niedermann.nextcloud.tables.database.dao;
+
+import androidx.lifecycle.LiveData;
+import androidx.room.Dao;
+import androidx.room.Query;
+
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
+
+/**
+ * {@link RowChange}s are written by triggers only, therefore this DAO only reads and prunes them.
+ */
+@Dao
+public interface RowChangeDao {
+
+    @Query("SELECT COALESCE(MAX(c.seq), 0) FROM RowChange c WHERE c.tableId = :tableId")
+    LiveData<Long> getLatestSeq$(long tableId);
+
+    @Query("SELECT c.rowId FROM RowChange c " +
+            "WHERE c.tableId = :tableId " +
+            "AND c.seq > :fromSeq " +
+            "AND c.seq <= :toSeq")
+    List<Long> getChangedRowIds(long tableId, long fromSeq, long toSeq);
+
+    /**
+     * Removes all {@link RowChange}s which have been consumed by every active observer
+     */
+    @Query("DELETE FROM RowChange WHERE seq <= :seq")
+    void deleteUpTo(long seq);
+}
@@ -5,6 +5,7 @@ import androidx.room.Dao;
 import androidx.room.MapInfo;
 import androidx.room.Query;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -39,11 +40,22 @@ public interface RowDao extends GenericDao<Row> {
             "ORDER BY r.remoteId IS NULL OR r.remoteId = '', r.remoteId")
     LiveData<List<Row>> getNotDeletedRows$(long tableId);
 
+    @Query("SELECT * FROM `Row` r " +
+            "WHERE r.tableId = :tableId " +
+            "AND r.status != 'LOCAL_DELETED'")
+    List<Row> getNotDeletedRows(long tableId);
+
+    @Query("SELECT * FROM `Row` r " +
+            "WHERE r.tableId = :tableId " +
+            "AND r.id IN (:ids) " +
+            "AND r.status != 'LOCAL_DELETED'")
+    List<Row> getNotDeletedRows(long tableId, Collection<Long> ids);
+
     @Query("SELECT * FROM `Row` WHERE id = :id")
     Row get(long id);
 
     @MapInfo(keyColumn = "remoteId", valueColumn = "id")
-    @Query("SELECT r.remoteId, r.id FROM `Row` r WHERE r.tableId = :tableId")
+    @Query("SELECT r.remoteId, r.id FROM `Row` r WHERE r.tableId = :tableId AND r.remoteId IS NOT NULL")
     Map<Long, Long> getRowRemoteAndLocalIds(long tableId);
 
     @Query("DELETE FROM `Row` WHERE tableId = :tableId")
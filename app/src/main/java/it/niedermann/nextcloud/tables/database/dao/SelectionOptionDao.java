@@ -26,9 +26,6 @@ public interface SelectionOptionDao extends GenericDao<SelectionOption> {
     @Query("SELECT s.remoteId, s.id FROM SelectionOption s WHERE s.columnId = :columnId AND s.remoteId IN (:remoteIds)")
     Map<Long, Long> getSelectionOptionRemoteAndLocalIds(long columnId, Collection<Long> remoteIds);
 
-    @Query("DELETE FROM SelectionOption WHERE columnId = :columnId AND remoteId NOT IN (:remoteIds)")
-    void deleteExcept(long columnId, Collection<Long> remoteIds);
-
     // TODO Check for DELETED
     @Query("SELECT DISTINCT s.* FROM SelectionOption s " +
             "INNER JOIN `Column` c ON s.columnId = c.id " +
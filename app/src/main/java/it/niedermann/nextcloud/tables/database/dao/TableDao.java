@@ -5,7 +5,6 @@ import androidx.room.Dao;
 import androidx.room.MapInfo;
 import androidx.room.Query;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 
@@ -39,10 +38,7 @@ public interface TableDao extends GenericDao<Table> {
     @Query("SELECT * FROM `Table` t WHERE t.accountId = :accountId AND t.isShared = :isShared AND t.status != 'LOCAL_DELETED' ORDER by t.title")
     LiveData<List<Table>> getNotDeletedTables$(long accountId, boolean isShared);
 
-    @MapInfo(keyColumn = "remoteId", valueColumn = "id")
-    @Query("SELECT t.remoteId, t.id FROM `Table` t WHERE t.accountId = :accountId AND t.remoteId IN (:remoteIds)")
-    Map<Long, Long> getTableRemoteAndLocalIds(long accountId, Collection<Long> remoteIds);
-
-    @Query("DELETE FROM `Table` WHERE accountId = :accountId AND remoteId NOT IN (:remoteIds)")
-    void deleteExcept(long accountId, Collection<Long> remoteIds);
+    @MapInfo(keyColumn = "id", valueColumn = "remoteId")
+    @Query("SELECT t.id, t.remoteId FROM `Table` t WHERE t.accountId = :accountId AND t.remoteId IS NOT NULL")
+    Map<Long, Long> getTableLocalAndRemoteIds(long accountId);
 }
@@ -0,0 +1,20 @@
+package it.niedermann.nextcloud.tables.database.dao;
+
+import androidx.room.Dao;
+import androidx.room.Query;
+import androidx.room.Upsert;
+
+import it.niedermann.nextcloud.tables.database.entity.TableSyncState;
+
+@Dao
+public interface TableSyncStateDao {
+
+    @Query("SELECT * FROM TableSyncState s WHERE s.tableId = :tableId")
+    TableSyncState get(long tableId);
+
+    @Upsert
+    void upsert(TableSyncState tableSyncState);
+
+    @Query("DELETE FROM TableSyncState WHERE tableId = :tableId")
+    void delete(long tableId);
+}
@@ -10,6 +10,7 @@ import androidx.annotation.Px;
 import androidx.room.ColumnInfo;
 import androidx.room.Entity;
 import androidx.room.ForeignKey;
+import androidx.room.Ignore;
 import androidx.room.Index;
 
 import com.bumptech.glide.Glide;
@@ -75,6 +76,21 @@ public class Account extends AbstractEntity {
         setUrl(url);
     }
 
+    @Ignore
+    public Account(@NonNull Account account) {
+        setId(account.getId());
+        setETag(account.getETag());
+        setStatus(account.getStatus());
+        setUrl(account.getUrl());
+        setUserName(account.getUserName());
+        setAccountName(account.getAccountName());
+        setNextcloudVersion(account.getNextcloudVersion());
+        setTablesVersion(account.getTablesVersion());
+        setColor(account.getColor());
+        setDisplayName(account.getDisplayName());
+        setCurrentTable(account.getCurrentTable());
+    }
+
     /**
      * @return The {@link #getAvatarUrl(int, String)} of this {@link Account}
      */
@@ -0,0 +1,113 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.Objects;
+
+/**
+ * Aggregates of the {@link Data#getNumberValue()}s of a {@link Column} across all not deleted {@link Row}s, written exclusively by database triggers.
+ */
+@Entity(
+        foreignKeys = {
+                @ForeignKey(
+                        entity = Column.class,
+                        parentColumns = "id",
+                        childColumns = "columnId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        },
+        indices = {
+                @Index(name = "IDX_COLUMN_AGGREGATE_TABLE_ID", value = "tableId")
+        }
+)
+public class ColumnAggregate {
+
+    @PrimaryKey
+    private long columnId;
+
+    private long tableId;
+
+    /**
+     * Number of {@link Data} which have a {@link Data#getNumberValue()}
+     */
+    private long numberCount;
+
+    private double sumValue;
+
+    @Nullable
+    private Double minValue;
+
+    @Nullable
+    private Double maxValue;
+
+    public ColumnAggregate() {
+        // Default constructor
+    }
+
+    public long getColumnId() {
+        return columnId;
+    }
+
+    public void setColumnId(long columnId) {
+        this.columnId = columnId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    public long getNumberCount() {
+        return numberCount;
+    }
+
+    public void setNumberCount(long numberCount) {
+        this.numberCount = numberCount;
+    }
+
+    public double getSumValue() {
+        return sumValue;
+    }
+
+    public void setSumValue(double sumValue) {
+        this.sumValue = sumValue;
+    }
+
+    @Nullable
+    public Double getMinValue() {
+        return minValue;
+    }
+
+    public void setMinValue(@Nullable Double minValue) {
+        this.minValue = minValue;
+    }
+
+    @Nullable
+    public Double getMaxValue() {
+        return maxValue;
+    }
+
+    public void setMaxValue(@Nullable Double maxValue) {
+        this.maxValue = maxValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ColumnAggregate that = (ColumnAggregate) o;
+        return columnId == that.columnId && tableId == that.tableId && numberCount == that.numberCount && Double.compare(that.sumValue, sumValue) == 0 && Objects.equals(minValue, that.minValue) && Objects.equals(maxValue, that.maxValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columnId, tableId, numberCount, sumValue, minValue, maxValue);
+    }
+}
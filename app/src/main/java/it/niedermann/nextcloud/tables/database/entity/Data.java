@@ -47,7 +47,10 @@ import it.niedermann.nextcloud.tables.remote.adapter.ValueTypeAdapter;
                 @Index(name = "IDX_DATA_ACCOUNT_ID_REMOTE_COLUMN_ID", value = {"accountId", "remoteColumnId"}),
                 @Index(name = "IDX_DATA_COLUMN_ID_ROW_ID", value = {"columnId", "rowId"}, unique = true),
                 @Index(name = "IDX_DATA_COLUMN_ID", value = "columnId"),
-                @Index(name = "IDX_DATA_ROW_ID", value = "rowId")
+                @Index(name = "IDX_DATA_ROW_ID", value = "rowId"),
+                @Index(name = "IDX_DATA_COLUMN_ID_NUMBER_VALUE", value = {"columnId", "numberValue"}),
+                @Index(name = "IDX_DATA_COLUMN_ID_INSTANT_VALUE", value = {"columnId", "instantValue"}),
+                @Index(name = "IDX_DATA_COLUMN_ID_SORT_KEY", value = {"columnId", "sortKey"})
         }
 )
 public class Data extends AbstractAccountRelatedEntity {
@@ -64,6 +67,24 @@ public class Data extends AbstractAccountRelatedEntity {
     @Nullable
     @JsonAdapter(ValueTypeAdapter.class)
     private String value;
+    /**
+     * {@link #value} of number {@link Column}s, derived when persisting
+     */
+    @Nullable
+    @Expose(deserialize = false, serialize = false)
+    private Double numberValue;
+    /**
+     * {@link #value} of date and time {@link Column}s as epoch milliseconds, respectively milliseconds of the day for time {@link Column}s, derived when persisting
+     */
+    @Nullable
+    @Expose(deserialize = false, serialize = false)
+    private Long instantValue;
+    /**
+     * Case and accent insensitive prefix of the {@link #value} of text {@link Column}s, derived when persisting
+     */
+    @Nullable
+    @Expose(deserialize = false, serialize = false)
+    private String sortKey;
 
     public Data() {
         // Default constructor
@@ -79,6 +100,9 @@ public class Data extends AbstractAccountRelatedEntity {
         setETag(data.getETag());
         setStatus(data.getStatus());
         setValue(data.getValue());
+        setNumberValue(data.getNumberValue());
+        setInstantValue(data.getInstantValue());
+        setSortKey(data.getSortKey());
     }
 
     public long getColumnId() {
@@ -115,6 +139,33 @@ public class Data extends AbstractAccountRelatedEntity {
         this.value = value;
     }
 
+    @Nullable
+    public Double getNumberValue() {
+        return numberValue;
+    }
+
+    public void setNumberValue(@Nullable Double numberValue) {
+        this.numberValue = numberValue;
+    }
+
+    @Nullable
+    public Long getInstantValue() {
+        return instantValue;
+    }
+
+    public void setInstantValue(@Nullable Long instantValue) {
+        this.instantValue = instantValue;
+    }
+
+    @Nullable
+    public String getSortKey() {
+        return sortKey;
+    }
+
+    public void setSortKey(@Nullable String sortKey) {
+        this.sortKey = sortKey;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -0,0 +1,98 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.ColumnInfo;
+import androidx.room.Entity;
+import androidx.room.Fts4;
+import androidx.room.FtsOptions;
+import androidx.room.PrimaryKey;
+
+import java.util.Objects;
+
+/**
+ * Full text index of the {@link Data} values, written exclusively by database triggers.
+ * Values of selection {@link Column}s are indexed with the labels of their {@link SelectionOption}s, so the displayed text can be found.
+ * The <code>rowid</code> equals {@link Data#getId()}.
+ */
+@Fts4(
+        tokenizer = FtsOptions.TOKENIZER_UNICODE61,
+        prefix = {2, 3},
+        notIndexed = {"accountId", "tableId", "localRowId"}
+)
+@Entity
+public class DataSearch {
+
+    @PrimaryKey
+    @ColumnInfo(name = "rowid")
+    private long dataId;
+
+    private long accountId;
+
+    private long tableId;
+
+    /**
+     * {@link Row#getId()}, because <code>rowId</code> would shadow the <code>rowid</code> of the virtual table
+     */
+    private long localRowId;
+
+    @NonNull
+    private String content = "";
+
+    public DataSearch() {
+        // Default constructor
+    }
+
+    public long getDataId() {
+        return dataId;
+    }
+
+    public void setDataId(long dataId) {
+        this.dataId = dataId;
+    }
+
+    public long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(long accountId) {
+        this.accountId = accountId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    public long getLocalRowId() {
+        return localRowId;
+    }
+
+    public void setLocalRowId(long localRowId) {
+        this.localRowId = localRowId;
+    }
+
+    @NonNull
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(@NonNull String content) {
+        this.content = content;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        DataSearch that = (DataSearch) o;
+        return dataId == that.dataId && accountId == that.accountId && tableId == that.tableId && localRowId == that.localRowId && Objects.equals(content, that.content);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataId, accountId, tableId, localRowId, content);
+    }
+}
@@ -0,0 +1,87 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.annotation.NonNull;
+import androidx.room.Entity;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.Objects;
+
+/**
+ * Change log entry for a {@link Row}, written exclusively by database triggers whenever a {@link Row} or one of its {@link Data} changes.
+ * Observers remember the last {@link #seq} they have seen and only reload the {@link Row}s which changed since then.
+ * There is at most one entry per {@link Row}, each change replaces it with a new {@link #seq}.
+ * There is intentionally no foreign key, because entries of deleted {@link Row}s and {@link Table}s must survive the deletion.
+ */
+@Entity(
+        indices = {
+                @Index(value = {"tableId", "seq"}),
+                @Index(value = "rowId", unique = true)
+        }
+)
+public class RowChange {
+
+    public static final String OP_INSERT = "INSERT";
+    public static final String OP_UPDATE = "UPDATE";
+    public static final String OP_DELETE = "DELETE";
+
+    @PrimaryKey(autoGenerate = true)
+    private long seq;
+
+    private long tableId;
+
+    private long rowId;
+
+    @NonNull
+    private String op = OP_UPDATE;
+
+    public RowChange() {
+        // Default constructor
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    public long getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(long rowId) {
+        this.rowId = rowId;
+    }
+
+    @NonNull
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(@NonNull String op) {
+        this.op = op;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RowChange rowChange = (RowChange) o;
+        return seq == rowChange.seq && tableId == rowChange.tableId && rowId == rowChange.rowId && op.equals(rowChange.op);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(seq, tableId, rowId, op);
+    }
+}
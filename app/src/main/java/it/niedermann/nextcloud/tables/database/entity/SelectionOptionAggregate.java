@@ -0,0 +1,75 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.Index;
+import androidx.room.PrimaryKey;
+
+import java.util.Objects;
+
+/**
+ * Number of {@link Data} of not deleted {@link Row}s which reference a {@link SelectionOption}, written exclusively by database triggers.
+ */
+@Entity(
+        foreignKeys = {
+                @ForeignKey(
+                        entity = SelectionOption.class,
+                        parentColumns = "id",
+                        childColumns = "selectionOptionId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        },
+        indices = {
+                @Index(name = "IDX_SELECTION_OPTION_AGGREGATE_COLUMN_ID", value = "columnId")
+        }
+)
+public class SelectionOptionAggregate {
+
+    @PrimaryKey
+    private long selectionOptionId;
+
+    private long columnId;
+
+    private long valueCount;
+
+    public SelectionOptionAggregate() {
+        // Default constructor
+    }
+
+    public long getSelectionOptionId() {
+        return selectionOptionId;
+    }
+
+    public void setSelectionOptionId(long selectionOptionId) {
+        this.selectionOptionId = selectionOptionId;
+    }
+
+    public long getColumnId() {
+        return columnId;
+    }
+
+    public void setColumnId(long columnId) {
+        this.columnId = columnId;
+    }
+
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    public void setValueCount(long valueCount) {
+        this.valueCount = valueCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SelectionOptionAggregate that = (SelectionOptionAggregate) o;
+        return selectionOptionId == that.selectionOptionId && columnId == that.columnId && valueCount == that.valueCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(selectionOptionId, columnId, valueCount);
+    }
+}
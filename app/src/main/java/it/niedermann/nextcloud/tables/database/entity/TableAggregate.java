@@ -0,0 +1,61 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import java.util.Objects;
+
+/**
+ * Number of not deleted {@link Row}s of a {@link Table}, written exclusively by database triggers.
+ */
+@Entity(
+        foreignKeys = {
+                @ForeignKey(
+                        entity = Table.class,
+                        parentColumns = "id",
+                        childColumns = "tableId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        }
+)
+public class TableAggregate {
+
+    @PrimaryKey
+    private long tableId;
+
+    private long rowCount;
+
+    public TableAggregate() {
+        // Default constructor
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableAggregate that = (TableAggregate) o;
+        return tableId == that.tableId && rowCount == that.rowCount;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tableId, rowCount);
+    }
+}
@@ -0,0 +1,99 @@
+package it.niedermann.nextcloud.tables.database.entity;
+
+import androidx.annotation.Nullable;
+import androidx.room.Entity;
+import androidx.room.ForeignKey;
+import androidx.room.PrimaryKey;
+
+import java.time.Instant;
+import java.util.Objects;
+
+/**
+ * Remembers what has been pulled for the {@link Row}s of a {@link Table}, so subsequent synchronizations can skip unchanged content.
+ * Kept separately from {@link Table} because {@link Table}s get overridden by the server state on each synchronization.
+ */
+@Entity(
+        foreignKeys = {
+                @ForeignKey(
+                        entity = Table.class,
+                        parentColumns = "id",
+                        childColumns = "tableId",
+                        onDelete = ForeignKey.CASCADE
+                )
+        }
+)
+public class TableSyncState {
+
+    @PrimaryKey
+    private long tableId;
+
+    /**
+     * <code>ETag</code> of the {@link Row}s response, only present if all {@link Row}s fit into one page
+     */
+    @Nullable
+    private String rowsETag;
+
+    /**
+     * Most recent {@link Row#getLastEditAt()} which has been pulled
+     */
+    @Nullable
+    private Instant rowsWatermark;
+
+    /**
+     * Order independent hash of the {@link Row#getRemoteId()}s and {@link Row#getLastEditAt()}s which have been pulled
+     */
+    @Nullable
+    private Long rowsHash;
+
+    public TableSyncState() {
+        // Default constructor
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    @Nullable
+    public String getRowsETag() {
+        return rowsETag;
+    }
+
+    public void setRowsETag(@Nullable String rowsETag) {
+        this.rowsETag = rowsETag;
+    }
+
+    @Nullable
+    public Instant getRowsWatermark() {
+        return rowsWatermark;
+    }
+
+    public void setRowsWatermark(@Nullable Instant rowsWatermark) {
+        this.rowsWatermark = rowsWatermark;
+    }
+
+    @Nullable
+    public Long getRowsHash() {
+        return rowsHash;
+    }
+
+    public void setRowsHash(@Nullable Long rowsHash) {
+        this.rowsHash = rowsHash;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableSyncState that = (TableSyncState) o;
+        return tableId == that.tableId && Objects.equals(rowsETag, that.rowsETag) && Objects.equals(rowsWatermark, that.rowsWatermark) && Objects.equals(rowsHash, that.rowsHash);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(tableId, rowsETag, rowsWatermark, rowsHash);
+    }
+}
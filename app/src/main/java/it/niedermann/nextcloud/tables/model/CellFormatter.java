@@ -0,0 +1,106 @@
+package it.niedermann.nextcloud.tables.model;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.FormatStyle;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+
+/**
+ * Turns raw values into the text which gets displayed, so cells don't need to parse their values while binding.
+ * Applied by {@link DataGridBuilder} while it places the values into the {@link CellGrid}.
+ * Formats are resolved for the current {@link java.util.Locale} when creating the {@link CellFormatter}.
+ * Formatting runs on a background executor where exceptions would get lost, so values which can not be parsed are logged and displayed as they are.
+ */
+@WorkerThread
+public class CellFormatter {
+
+    private static final String TAG = CellFormatter.class.getSimpleName();
+    private final DateTimeFormatter dateTimeFormatter = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.MEDIUM);
+    private final DateTimeFormatter dateFormatter = DateTimeFormatter.ofLocalizedDate(FormatStyle.MEDIUM);
+    private final DateTimeFormatter timeFormatter = DateTimeFormatter.ofLocalizedTime(FormatStyle.MEDIUM);
+
+    public boolean isFormatted(@NonNull EDataType type) {
+        switch (type) {
+            case DATETIME:
+            case DATETIME_DATETIME:
+            case DATETIME_DATE:
+            case DATETIME_TIME:
+            case NUMBER:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the display text of the given value or <code>null</code> if there is nothing to display
+     */
+    @Nullable
+    public String format(@NonNull EDataType type, @NonNull Column column, @Nullable String value) {
+        switch (type) {
+            case DATETIME:
+            case DATETIME_DATETIME:
+                return formatDateTime(value, v -> LocalDateTime.parse(v, DateTimeFormatter.ISO_DATE_TIME).format(dateTimeFormatter));
+            case DATETIME_DATE:
+                return formatDateTime(value, v -> LocalDate.parse(v, DateTimeFormatter.ISO_DATE).format(dateFormatter));
+            case DATETIME_TIME:
+                return formatDateTime(value, v -> LocalTime.parse(v, DateTimeFormatter.ISO_TIME).format(timeFormatter));
+            case NUMBER:
+                return formatNumber(column, value);
+            default:
+                return value;
+        }
+    }
+
+    @Nullable
+    private String formatDateTime(@Nullable String value, @NonNull DateTimeFormat format) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+
+        try {
+            return format.format(value);
+        } catch (DateTimeParseException e) {
+            Log.e(TAG, "Could not parse date " + value, e);
+            return value;
+        }
+    }
+
+    @Nullable
+    private String formatNumber(@NonNull Column column, @Nullable String rawValue) {
+        Number value;
+
+        if (rawValue == null || rawValue.isEmpty()) {
+            value = column.getNumberDefault();
+        } else {
+            try {
+                value = Long.parseLong(rawValue);
+            } catch (NumberFormatException noLongException) {
+                try {
+                    value = Double.parseDouble(rawValue);
+                } catch (NumberFormatException noDoubleException) {
+                    Log.e(TAG, "Could not parse number " + rawValue, noDoubleException);
+                    return rawValue;
+                }
+            }
+        }
+
+        // TODO respect {@link Column#getNumberDecimals()}
+        return value == null ? null : column.getNumberPrefix() + value + column.getNumberSuffix();
+    }
+
+    private interface DateTimeFormat {
+        @NonNull
+        String format(@NonNull String value) throws DateTimeParseException;
+    }
+}
@@ -0,0 +1,176 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+
+/**
+ * Columnar representation of the cell values of a table. Instead of one {@link Data} entity per cell,
+ * each {@link Column} holds one <code>int</code> per {@link Row}, referencing a dictionary of the distinct values.
+ */
+public class CellGrid {
+
+    private static final int NO_VALUE = -1;
+    private final long[] rowIds;
+    private final int columnCount;
+    /**
+     * One array per {@link Column}, containing the dictionary index of the value of each {@link Row} or {@link #NO_VALUE}
+     */
+    private final int[][] codes;
+    private final String[] dictionary;
+
+    private CellGrid(@NonNull long[] rowIds, @NonNull int[][] codes, @NonNull String[] dictionary) {
+        this.rowIds = rowIds;
+        this.columnCount = codes.length;
+        this.codes = codes;
+        this.dictionary = dictionary;
+    }
+
+    public int getRowCount() {
+        return rowIds.length;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public long getRowId(int rowPosition) {
+        return rowIds[rowPosition];
+    }
+
+    @Nullable
+    public String getValue(int rowPosition, int columnPosition) {
+        final int code = codes[columnPosition][rowPosition];
+        return code == NO_VALUE ? null : dictionary[code];
+    }
+
+    /**
+     * @return a view of the values of the given {@link Row}, which can be modified without affecting this {@link CellGrid}
+     */
+    @NonNull
+    public List<String> getRow(int rowPosition) {
+        return new CellRow(this, rowPosition);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CellGrid cellGrid = (CellGrid) o;
+        return Arrays.equals(rowIds, cellGrid.rowIds) && Arrays.deepEquals(codes, cellGrid.codes) && Arrays.equals(dictionary, cellGrid.dictionary);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Arrays.hashCode(rowIds);
+        result = 31 * result + Arrays.deepHashCode(codes);
+        result = 31 * result + Arrays.hashCode(dictionary);
+        return result;
+    }
+
+    private static class CellRow extends AbstractList<String> {
+
+        private final CellGrid grid;
+        private final int rowPosition;
+        /**
+         * Only allocated once a value gets replaced
+         */
+        @Nullable
+        private String[] values;
+
+        private CellRow(@NonNull CellGrid grid, int rowPosition) {
+            this.grid = grid;
+            this.rowPosition = rowPosition;
+        }
+
+        @Nullable
+        @Override
+        public String get(int columnPosition) {
+            return values == null ? grid.getValue(rowPosition, columnPosition) : values[columnPosition];
+        }
+
+        @Nullable
+        @Override
+        public String set(int columnPosition, @Nullable String value) {
+            if (values == null) {
+                values = new String[grid.columnCount];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = grid.getValue(rowPosition, i);
+                }
+            }
+
+            final var previous = values[columnPosition];
+            values[columnPosition] = value;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return grid.columnCount;
+        }
+    }
+
+    public static class Builder {
+
+        private final long[] rowIds;
+        private final int[][] codes;
+        private final Map<String, Integer> dictionary = new HashMap<>();
+
+        public Builder(@NonNull long[] rowIds, int columnCount) {
+            this.rowIds = rowIds;
+            this.codes = new int[columnCount][];
+            for (int columnPosition = 0; columnPosition < columnCount; columnPosition++) {
+                codes[columnPosition] = new int[rowIds.length];
+                Arrays.fill(codes[columnPosition], NO_VALUE);
+            }
+        }
+
+        @NonNull
+        public Builder put(int rowPosition, int columnPosition, @Nullable String value) {
+            codes[columnPosition][rowPosition] = encode(value);
+            return this;
+        }
+
+        /**
+         * Puts the given value into all cells of the given {@link Column}
+         */
+        @NonNull
+        public Builder fill(int columnPosition, @Nullable String value) {
+            Arrays.fill(codes[columnPosition], encode(value));
+            return this;
+        }
+
+        private int encode(@Nullable String value) {
+            if (value == null) {
+                return NO_VALUE;
+            }
+
+            final var code = dictionary.get(value);
+            if (code != null) {
+                return code;
+            }
+
+            final int newCode = dictionary.size();
+            dictionary.put(value, newCode);
+            return newCode;
+        }
+
+        @NonNull
+        public CellGrid build() {
+            final var values = new String[dictionary.size()];
+            for (final var entry : dictionary.entrySet()) {
+                values[entry.getValue()] = entry.getKey();
+            }
+            return new CellGrid(rowIds, codes, values);
+        }
+    }
+}
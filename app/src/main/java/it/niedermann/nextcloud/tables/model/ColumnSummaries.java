@@ -0,0 +1,83 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+
+import java.text.NumberFormat;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
+
+/**
+ * Renders the maintained aggregates of each {@link it.niedermann.nextcloud.tables.database.entity.Column} as one short line, e.g. <code>Σ 12 · ⌀ 4 · 1–8</code>.
+ */
+public class ColumnSummaries {
+
+    private static final String SEPARATOR = " · ";
+    private static final int MAX_SELECTION_OPTIONS = 3;
+
+    private final NumberFormat numberFormat;
+
+    public ColumnSummaries() {
+        this(Locale.getDefault());
+    }
+
+    public ColumnSummaries(@NonNull Locale locale) {
+        this.numberFormat = NumberFormat.getNumberInstance(locale);
+        this.numberFormat.setMaximumFractionDigits(2);
+    }
+
+    /**
+     * @param selectionOptionCounts expected to be ordered by {@link SelectionOptionCount#getValueCount()} descending
+     * @return summaries by {@link ColumnAggregate#getColumnId()}, {@link it.niedermann.nextcloud.tables.database.entity.Column}s without any values are omitted
+     */
+    @NonNull
+    public Map<Long, String> summarize(@NonNull Collection<ColumnAggregate> columnAggregates,
+                                       @NonNull Collection<SelectionOptionCount> selectionOptionCounts) {
+        final var summaries = new HashMap<Long, String>();
+
+        for (final var aggregate : columnAggregates) {
+            if (aggregate.getNumberCount() > 0) {
+                summaries.put(aggregate.getColumnId(), summarize(aggregate));
+            }
+        }
+
+        final var countsByColumn = new LinkedHashMap<Long, StringJoiner>();
+        final var optionsByColumn = new HashMap<Long, Integer>();
+        for (final var count : selectionOptionCounts) {
+            if (count.getValueCount() <= 0) {
+                continue;
+            }
+
+            final var options = optionsByColumn.merge(count.getColumnId(), 1, Integer::sum);
+            final var joiner = countsByColumn.computeIfAbsent(count.getColumnId(), columnId -> new StringJoiner(SEPARATOR));
+            if (options <= MAX_SELECTION_OPTIONS) {
+                joiner.add(count.getLabel() + " " + count.getValueCount());
+            } else if (options == MAX_SELECTION_OPTIONS + 1) {
+                joiner.add("…");
+            }
+        }
+        countsByColumn.forEach((columnId, joiner) -> summaries.put(columnId, joiner.toString()));
+
+        return summaries;
+    }
+
+    @NonNull
+    private String summarize(@NonNull ColumnAggregate aggregate) {
+        final var summary = new StringJoiner(SEPARATOR)
+                .add("Σ " + numberFormat.format(aggregate.getSumValue()))
+                .add("⌀ " + numberFormat.format(aggregate.getSumValue() / aggregate.getNumberCount()));
+
+        final var min = aggregate.getMinValue();
+        final var max = aggregate.getMaxValue();
+        if (min != null && max != null) {
+            summary.add(numberFormat.format(min) + "–" + numberFormat.format(max));
+        }
+
+        return summary.toString();
+    }
+}
@@ -0,0 +1,48 @@
+package it.niedermann.nextcloud.tables.model;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+
+/**
+ * Position of a {@link Data} within its {@link it.niedermann.nextcloud.tables.database.entity.Table}, without loading its value.
+ */
+public class DataCoordinates {
+
+    private long id;
+    private long rowId;
+    private long columnId;
+
+    /**
+     * @return {@link Data#getId()}
+     */
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    /**
+     * @return {@link Row#getId()}
+     */
+    public long getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(long rowId) {
+        this.rowId = rowId;
+    }
+
+    /**
+     * @return {@link Column#getId()}
+     */
+    public long getColumnId() {
+        return columnId;
+    }
+
+    public void setColumnId(long columnId) {
+        this.columnId = columnId;
+    }
+}
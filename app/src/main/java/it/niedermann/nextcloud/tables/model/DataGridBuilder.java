@@ -0,0 +1,112 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.database.entity.AbstractEntity;
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+
+/**
+ * Arranges {@link Data} in a {@link CellGrid} of {@link Row}s × {@link Column}s. {@link Row}s and {@link Column}s are indexed by their ID first,
+ * so each {@link Data} is placed with two lookups in one pass, instead of searching the {@link Data} for each cell.
+ */
+public class DataGridBuilder {
+
+    /**
+     * @return a {@link CellGrid} with the raw values of the {@link Row}s and {@link Column}s in the given order, without values for cells without {@link Data}
+     */
+    @NonNull
+    public CellGrid build(@NonNull List<Row> rows, @NonNull List<Column> columns, @NonNull Collection<Data> data) {
+        return build(rows, columns, data, null, null);
+    }
+
+    /**
+     * Formats the values with the given {@link CellFormatter} while placing them, so no second grid needs to be built for the display text.
+     *
+     * @return a {@link CellGrid} containing the display text of each cell. Values of types which are not formatted are kept as they are.
+     */
+    @NonNull
+    public CellGrid build(@NonNull List<Row> rows, @NonNull TableSchema schema, @NonNull Collection<Data> data, @NonNull CellFormatter formatter) {
+        return build(rows, schema.getColumns(), data, schema, formatter);
+    }
+
+    @NonNull
+    private CellGrid build(@NonNull List<Row> rows,
+                           @NonNull List<Column> columns,
+                           @NonNull Collection<Data> data,
+                           @Nullable TableSchema schema,
+                           @Nullable CellFormatter formatter) {
+        final var rowPositions = indexPositions(rows);
+        final var columnPositions = indexPositions(columns);
+
+        final var rowIds = new long[rows.size()];
+        for (int position = 0; position < rowIds.length; position++) {
+            rowIds[position] = rows.get(position).getId();
+        }
+
+        final var grid = new CellGrid.Builder(rowIds, columns.size());
+
+        // Display texts of the values of each formatted column, so equal values of one column are only formatted once
+        final var formatted = new ArrayList<Map<String, String>>(columns.size());
+        for (int columnPosition = 0; columnPosition < columns.size(); columnPosition++) {
+            if (schema == null || formatter == null || !formatter.isFormatted(schema.getType(columnPosition))) {
+                formatted.add(null);
+                continue;
+            }
+
+            // Cells without Data might display a default value
+            final var emptyText = formatter.format(schema.getType(columnPosition), columns.get(columnPosition), null);
+            final var texts = new HashMap<String, String>();
+            texts.put("", emptyText);
+            formatted.add(texts);
+            if (emptyText != null) {
+                grid.fill(columnPosition, emptyText);
+            }
+        }
+
+        for (final var cell : data) {
+            final var rowPosition = rowPositions.get(cell.getRowId());
+            if (rowPosition == null) {
+                continue;
+            }
+
+            final var columnPosition = columnPositions.get(cell.getColumnId());
+            if (columnPosition == null) {
+                continue;
+            }
+
+            final var texts = formatted.get(columnPosition);
+            if (texts == null) {
+                grid.put(rowPosition, columnPosition, cell.getValue());
+            } else {
+                final var key = cell.getValue() == null ? "" : cell.getValue();
+                var text = texts.get(key);
+                if (text == null && !texts.containsKey(key)) {
+                    //noinspection ConstantConditions
+                    text = formatter.format(schema.getType(columnPosition), columns.get(columnPosition), cell.getValue());
+                    texts.put(key, text);
+                }
+                grid.put(rowPosition, columnPosition, text);
+            }
+        }
+
+        return grid.build();
+    }
+
+    @NonNull
+    private static Map<Long, Integer> indexPositions(@NonNull List<? extends AbstractEntity> entities) {
+        final var positions = new HashMap<Long, Integer>(entities.size() * 2);
+        for (int position = 0; position < entities.size(); position++) {
+            positions.put(entities.get(position).getId(), position);
+        }
+        return positions;
+    }
+}
@@ -3,6 +3,8 @@ package it.niedermann.nextcloud.tables.model;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import java.util.HashMap;
+import java.util.Map;
 import java.util.NoSuchElementException;
 
 import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
@@ -36,32 +38,40 @@ public enum EDataType {
     NUMBER_STARS(4_002, "number", "stars"),
     ;
 
+    private static final Map<Integer, EDataType> TYPES_BY_ID = new HashMap<>();
+    private static final Map<String, EDataType> TYPES_BY_TYPE_AND_SUB_TYPE = new HashMap<>();
+
+    static {
+        for (final var entry : EDataType.values()) {
+            TYPES_BY_ID.put(entry.id, entry);
+            TYPES_BY_TYPE_AND_SUB_TYPE.put(toKey(entry.type, entry.subType), entry);
+        }
+    }
+
     private final int id;
     private final String type;
     private final String subType;
 
     public static EDataType findById(int id) throws NoSuchElementException {
-        for (final var entry : EDataType.values()) {
-            if (entry.id == id) {
-                return entry;
-            }
+        final var entry = TYPES_BY_ID.get(id);
+        if (entry == null) {
+            throw new NoSuchElementException("Unknown " + EDataType.class.getSimpleName() + " ID: " + id);
         }
 
-        throw new NoSuchElementException("Unknown " + EDataType.class.getSimpleName() + " ID: " + id);
+        return entry;
     }
 
+    /**
+     * Prefer {@link TableSchema} when the type of a {@link Column} is needed repeatedly.
+     */
     public static EDataType findByColumn(@Nullable Column column) {
         if (column == null) {
             return EDataType.UNKNOWN;
         }
 
-        final var type = column.getType();
-        final var subType = column.getSubtype();
-
-        for (final var entry : EDataType.values()) {
-            if (entry.type.equals(type) && entry.subType.equals(subType)) {
-                return entry;
-            }
+        final var entry = TYPES_BY_TYPE_AND_SUB_TYPE.get(toKey(column.getType(), column.getSubtype()));
+        if (entry != null) {
+            return entry;
         }
 
         if (FeatureToggle.STRICT_MODE.enabled) {
@@ -71,6 +81,11 @@ public enum EDataType {
         return EDataType.UNKNOWN;
     }
 
+    @NonNull
+    private static String toKey(@Nullable String type, @Nullable String subType) {
+        return type + "/" + subType;
+    }
+
     EDataType(int id, @NonNull String type, @NonNull String subType) {
         this.type = type;
         this.subType = subType;
@@ -6,29 +6,27 @@ import java.util.List;
 import java.util.Objects;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.database.entity.Row;
-import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 import it.niedermann.nextcloud.tables.database.entity.Table;
 
 public class FullTable {
 
     private final Table table;
     private final List<Row> rows;
-    private final List<Column> columns;
-    private final List<SelectionOption> selectionOptions;
-    private final List<List<Data>> data;
+    private final TableSchema schema;
+    private final SelectionDictionary selectionDictionary;
+    private final CellGrid cells;
 
     public FullTable(@NonNull Table table,
                      @NonNull List<Row> rows,
-                     @NonNull List<Column> columns,
-                     @NonNull List<SelectionOption> selectionOptions,
-                     @NonNull List<List<Data>> data) {
+                     @NonNull TableSchema schema,
+                     @NonNull SelectionDictionary selectionDictionary,
+                     @NonNull CellGrid cells) {
         this.table = table;
         this.rows = rows;
-        this.columns = columns;
-        this.selectionOptions = selectionOptions;
-        this.data = data;
+        this.schema = schema;
+        this.selectionDictionary = selectionDictionary;
+        this.cells = cells;
     }
 
     public Table getTable() {
@@ -40,15 +38,22 @@ public class FullTable {
     }
 
     public List<Column> getColumns() {
-        return columns;
+        return schema.getColumns();
     }
 
-    public List<SelectionOption> getSelectionOptions() {
-        return selectionOptions;
+    public TableSchema getSchema() {
+        return schema;
     }
 
-    public List<List<Data>> getData() {
-        return data;
+    public SelectionDictionary getSelectionDictionary() {
+        return selectionDictionary;
+    }
+
+    /**
+     * @see CellFormatter
+     */
+    public CellGrid getCells() {
+        return cells;
     }
 
     @Override
@@ -56,11 +61,11 @@ public class FullTable {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FullTable fullTable = (FullTable) o;
-        return Objects.equals(table, fullTable.table) && Objects.equals(rows, fullTable.rows) && Objects.equals(columns, fullTable.columns) && Objects.equals(data, fullTable.data);
+        return Objects.equals(table, fullTable.table) && Objects.equals(rows, fullTable.rows) && Objects.equals(schema, fullTable.schema) && Objects.equals(selectionDictionary, fullTable.selectionDictionary) && Objects.equals(cells, fullTable.cells);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(table, rows, columns, data);
+        return Objects.hash(table, rows, schema, selectionDictionary, cells);
     }
 }
@@ -1,12 +1,28 @@
 package it.niedermann.nextcloud.tables.model;
 
+import static java.util.stream.Collectors.groupingBy;
+
+import android.util.Log;
+import android.util.Range;
+
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MediatorLiveData;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
 import it.niedermann.nextcloud.tables.database.entity.Data;
@@ -14,65 +30,231 @@ import it.niedermann.nextcloud.tables.database.entity.Row;
 import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 import it.niedermann.nextcloud.tables.database.entity.Table;
 
+/**
+ * Keeps the {@link Row}s of a {@link Table} in memory and only reloads the {@link Row}s reported by {@link RowChanges},
+ * instead of querying the whole {@link Table} again on each write.
+ * {@link Data} is only loaded for a window around the visible {@link Row}s and evicted again when scrolled far away.
+ */
 public class FullTableLiveData extends MediatorLiveData<FullTable> {
 
+    private static final String TAG = FullTableLiveData.class.getSimpleName();
+    private static final ExecutorService gridExecutor = Executors.newSingleThreadExecutor();
+    /**
+     * Same order as {@link Row}s are queried from the database: synchronized {@link Row}s first
+     */
+    private static final Comparator<Row> ROW_ORDER = Comparator
+            .comparing(Row::getRemoteId, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparingLong(Row::getId);
+    /**
+     * Assumed until the first visible {@link Row}s are reported
+     */
+    private static final Range<Integer> INITIAL_VISIBLE_ROWS = new Range<>(0, 50);
+    /**
+     * Amount of {@link Row}s before and after the visible {@link Row}s which get their {@link Data} loaded
+     */
+    private static final int PREFETCH_ROWS = 100;
+    /**
+     * {@link Data} of {@link Row}s further away from the visible {@link Row}s gets evicted
+     */
+    private static final int EVICT_ROWS = 500;
+    /**
+     * Amount of {@link Row}s whose {@link Data} is loaded with one query, below the SQLite limit of bind variables
+     */
+    private static final int PAGE_SIZE = 250;
+
     private final Table table;
-    private final Emitter<Row> rowEmitter = new Emitter<>();
-    private final Emitter<Column> columnEmitter = new Emitter<>();
-    private final Emitter<SelectionOption> selectionOptionEmitter = new Emitter<>();
-    private final Emitter<Data> dataEmitter = new Emitter<>();
+    private final RowLoader rowLoader;
+    private final DataGridBuilder gridBuilder = new DataGridBuilder();
+    private final AtomicLong latestGeneration = new AtomicLong();
+    private long appliedSeq = -1;
+
+    // Only accessed by gridExecutor
+    private final Map<Long, Row> rows = new HashMap<>();
+    private List<Row> sortedRows = Collections.emptyList();
+    /**
+     * Contains an entry for each {@link Row} whose {@link Data} is loaded, even if there is no {@link Data}
+     */
+    private final Map<Long, List<Data>> dataByRowId = new HashMap<>();
+    private Range<Integer> visibleRows = INITIAL_VISIBLE_ROWS;
+    private boolean rowsLoaded = false;
+    @Nullable
+    private TableSchema schema;
+    @Nullable
+    private SelectionDictionary selectionDictionary;
 
     public FullTableLiveData(@NonNull Table table,
-                             @NonNull LiveData<List<Row>> rowSource,
-                             @NonNull LiveData<List<Column>> columnRows,
+                             @NonNull LiveData<RowChanges> rowChanges,
+                             @NonNull LiveData<List<Column>> columns,
                              @NonNull LiveData<List<SelectionOption>> selectionOptions,
-                             @NonNull LiveData<List<Data>> dataSource) {
+                             @NonNull LiveData<Range<Integer>> visibleRows,
+                             @NonNull RowLoader rowLoader) {
         this.table = table;
-        addSource(rowSource, rowEmitter::emit);
-        addSource(columnRows, columnEmitter::emit);
-        addSource(selectionOptions, selectionOptionEmitter::emit);
-        addSource(dataSource, dataEmitter::emit);
+        this.rowLoader = rowLoader;
+        addSource(rowChanges, this::onRowChanges);
+        addSource(columns, newColumns -> {
+            final var value = new ArrayList<>(newColumns);
+            gridExecutor.submit(() -> {
+                this.schema = new TableSchema(value);
+                requestBuild();
+            });
+        });
+        addSource(selectionOptions, newSelectionOptions -> {
+            final var value = new ArrayList<>(newSelectionOptions);
+            gridExecutor.submit(() -> {
+                this.selectionDictionary = new SelectionDictionary(value);
+                requestBuild();
+            });
+        });
+        addSource(visibleRows, newVisibleRows -> gridExecutor.submit(() -> {
+            this.visibleRows = newVisibleRows;
+            if (loadWindow()) {
+                requestBuild();
+            }
+        }));
+    }
+
+    @MainThread
+    private void onRowChanges(@NonNull RowChanges changes) {
+        // Patching is only safe if no changes have been missed in between
+        final var rowIds = changes.getFromSeq() == appliedSeq ? changes.getRowIds() : null;
+        appliedSeq = changes.getToSeq();
+        gridExecutor.submit(() -> {
+            if (rowIds != null && rowIds.isEmpty()) {
+                return;
+            }
+
+            loadRows(rowIds);
+            loadWindow();
+            requestBuild();
+        });
     }
 
-    private class Emitter<T> {
-        private boolean firstEmit = true;
-        private final List<T> value = new ArrayList<>();
-
-        // TODO find better way then synchronized
-        private synchronized void emit(List<T> newValues) {
-            this.firstEmit = false;
-            this.value.clear();
-            this.value.addAll(newValues);
-
-            if (!rowEmitter.firstEmit && !columnEmitter.firstEmit && !selectionOptionEmitter.firstEmit && !dataEmitter.firstEmit) {
-                final var rows = new ArrayList<List<Data>>(Collections.nCopies(rowEmitter.value.size(), null));
-
-                for (int rowPosition = 0; rowPosition < rowEmitter.value.size(); rowPosition++) {
-                    final var columnsForCurrentRow = new ArrayList<Data>(Collections.nCopies(columnEmitter.value.size(), null));
-                    rows.set(rowPosition, columnsForCurrentRow);
-
-                    for (int columnPosition = 0; columnPosition < columnEmitter.value.size(); columnPosition++) {
-                        final var targetRowId = rowEmitter.value.get(rowPosition).getId();
-                        final var targetColumnId = columnEmitter.value.get(columnPosition).getId();
-
-                        final var finalColumnPosition = columnPosition;
-
-                        dataEmitter.value
-                                .stream()
-                                .filter(data -> data.getRowId() == targetRowId)
-                                .filter(data -> data.getColumnId() == targetColumnId)
-                                .findAny()
-                                .ifPresentOrElse(
-                                        data -> columnsForCurrentRow.set(finalColumnPosition, data),
-                                        () -> columnsForCurrentRow.set(finalColumnPosition, null)
-                                );
-
-                    }
-                    rows.set(rowPosition, columnsForCurrentRow);
+    @WorkerThread
+    private void loadRows(@Nullable Set<Long> rowIds) {
+        if (rowIds == null) {
+            rows.clear();
+            dataByRowId.clear();
+            for (final var row : rowLoader.loadRows(null)) {
+                rows.put(row.getId(), row);
+            }
+            rowsLoaded = true;
+
+        } else {
+            // Data of loaded rows needs to be reloaded, others will be loaded once they become visible
+            final var reloadData = new ArrayList<Long>();
+            for (final var rowId : rowIds) {
+                rows.remove(rowId);
+                if (dataByRowId.remove(rowId) != null) {
+                    reloadData.add(rowId);
                 }
+            }
 
-                postValue(new FullTable(table, rowEmitter.value, columnEmitter.value, selectionOptionEmitter.value, rows));
+            for (final var row : rowLoader.loadRows(rowIds)) {
+                rows.put(row.getId(), row);
             }
+
+            reloadData.removeIf(rowId -> !rows.containsKey(rowId));
+            loadData(reloadData);
+        }
+
+        final var sortedRows = new ArrayList<>(rows.values());
+        sortedRows.sort(ROW_ORDER);
+        this.sortedRows = sortedRows;
+    }
+
+    /**
+     * Loads the {@link Data} of {@link Row}s close to the {@link #visibleRows} and evicts the {@link Data} of {@link Row}s far away.
+     *
+     * @return whether the {@link Data} in memory changed
+     */
+    @WorkerThread
+    private boolean loadWindow() {
+        if (sortedRows.isEmpty()) {
+            return false;
         }
+
+        final int lastPosition = sortedRows.size() - 1;
+        final int loadFrom = Math.max(0, visibleRows.getLower() - PREFETCH_ROWS);
+        final int loadTo = Math.min(lastPosition, visibleRows.getUpper() + PREFETCH_ROWS);
+        final int keepFrom = loadFrom - EVICT_ROWS;
+        final int keepTo = loadTo + EVICT_ROWS;
+
+        int evicted = 0;
+        if (dataByRowId.size() > loadTo - loadFrom + 1) {
+            for (int position = 0; position <= lastPosition; position++) {
+                if ((position < keepFrom || position > keepTo) && dataByRowId.remove(sortedRows.get(position).getId()) != null) {
+                    evicted++;
+                }
+            }
+        }
+
+        final var missing = new ArrayList<Long>();
+        for (int position = loadFrom; position <= loadTo; position++) {
+            final var rowId = sortedRows.get(position).getId();
+            if (!dataByRowId.containsKey(rowId)) {
+                missing.add(rowId);
+            }
+        }
+
+        loadData(missing);
+
+        if (evicted > 0 || !missing.isEmpty()) {
+            Log.v(TAG, "Loaded data of " + missing.size() + " rows, evicted " + evicted + " rows (" + dataByRowId.size() + " rows in memory)");
+            return true;
+        }
+
+        return false;
+    }
+
+    @WorkerThread
+    private void loadData(@NonNull List<Long> rowIds) {
+        for (int from = 0; from < rowIds.size(); from += PAGE_SIZE) {
+            final var page = rowIds.subList(from, Math.min(from + PAGE_SIZE, rowIds.size()));
+            final var data = rowLoader.loadData(page).stream().collect(groupingBy(Data::getRowId));
+            for (final var rowId : page) {
+                dataByRowId.put(rowId, data.getOrDefault(rowId, Collections.emptyList()));
+            }
+        }
+    }
+
+    @WorkerThread
+    private void requestBuild() {
+        if (!rowsLoaded || schema == null || selectionDictionary == null) {
+            return;
+        }
+
+        final var generation = latestGeneration.incrementAndGet();
+        gridExecutor.submit(() -> {
+            // A newer change has already been scheduled, building this grid would be a waste
+            if (generation != latestGeneration.get()) {
+                return;
+            }
+
+            final var data = new ArrayList<Data>();
+            for (final var cells : dataByRowId.values()) {
+                data.addAll(cells);
+            }
+
+            // Formats are resolved per build to respect changes of the locale
+            final var cells = gridBuilder.build(sortedRows, schema, data, new CellFormatter());
+            postValue(new FullTable(table, sortedRows, schema, selectionDictionary, cells));
+        });
+    }
+
+    /**
+     * Loads {@link Row}s and {@link Data} which are not deleted.
+     */
+    public interface RowLoader {
+
+        /**
+         * @param rowIds <code>null</code> to load all {@link Row}s of the {@link Table}
+         */
+        @WorkerThread
+        @NonNull
+        List<Row> loadRows(@Nullable Collection<Long> rowIds);
+
+        @WorkerThread
+        @NonNull
+        List<Data> loadData(@NonNull Collection<Long> rowIds);
     }
 }
@@ -0,0 +1,74 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
+
+/**
+ * IDs of the {@link Row}s which changed between two {@link RowChange} sequence numbers.
+ * Without {@link #getRowIds()} all {@link Row}s need to be reloaded, for example initially or when too many {@link Row}s changed to patch them individually.
+ */
+public class RowChanges {
+
+    private final long fromSeq;
+    private final long toSeq;
+    @Nullable
+    private final Set<Long> rowIds;
+
+    private RowChanges(long fromSeq, long toSeq, @Nullable Set<Long> rowIds) {
+        this.fromSeq = fromSeq;
+        this.toSeq = toSeq;
+        this.rowIds = rowIds;
+    }
+
+    @NonNull
+    public static RowChanges all(long toSeq) {
+        return new RowChanges(toSeq, toSeq, null);
+    }
+
+    @NonNull
+    public static RowChanges of(long fromSeq, long toSeq, @NonNull Collection<Long> rowIds) {
+        return new RowChanges(fromSeq, toSeq, Collections.unmodifiableSet(new HashSet<>(rowIds)));
+    }
+
+    public long getFromSeq() {
+        return fromSeq;
+    }
+
+    public long getToSeq() {
+        return toSeq;
+    }
+
+    public boolean isAll() {
+        return rowIds == null;
+    }
+
+    /**
+     * @return <code>null</code> if all {@link Row}s need to be reloaded
+     */
+    @Nullable
+    public Set<Long> getRowIds() {
+        return rowIds;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RowChanges that = (RowChanges) o;
+        return fromSeq == that.fromSeq && toSeq == that.toSeq && Objects.equals(rowIds, that.rowIds);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fromSeq, toSeq, rowIds);
+    }
+}
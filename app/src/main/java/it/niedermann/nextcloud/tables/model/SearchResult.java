@@ -0,0 +1,112 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Objects;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.Table;
+
+/**
+ * A {@link Data} matching a full text search, together with the {@link Table} it belongs to.
+ */
+public class SearchResult {
+
+    private long dataId;
+    private long tableId;
+    private long rowId;
+    @NonNull
+    private String content = "";
+    @NonNull
+    private String tableTitle = "";
+    @NonNull
+    private String tableEmoji = "";
+    /**
+     * Raw <code>matchinfo</code> of the full text search, only used for ranking
+     */
+    @Nullable
+    private byte[] matchInfo;
+
+    public long getDataId() {
+        return dataId;
+    }
+
+    public void setDataId(long dataId) {
+        this.dataId = dataId;
+    }
+
+    public long getTableId() {
+        return tableId;
+    }
+
+    public void setTableId(long tableId) {
+        this.tableId = tableId;
+    }
+
+    /**
+     * @return {@link Row#getId()}
+     */
+    public long getRowId() {
+        return rowId;
+    }
+
+    public void setRowId(long rowId) {
+        this.rowId = rowId;
+    }
+
+    @NonNull
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(@NonNull String content) {
+        this.content = content;
+    }
+
+    @NonNull
+    public String getTableTitle() {
+        return tableTitle;
+    }
+
+    public void setTableTitle(@NonNull String tableTitle) {
+        this.tableTitle = tableTitle;
+    }
+
+    @NonNull
+    public String getTableEmoji() {
+        return tableEmoji;
+    }
+
+    public void setTableEmoji(@NonNull String tableEmoji) {
+        this.tableEmoji = tableEmoji;
+    }
+
+    @Nullable
+    public byte[] getMatchInfo() {
+        return matchInfo;
+    }
+
+    public void setMatchInfo(@Nullable byte[] matchInfo) {
+        this.matchInfo = matchInfo;
+    }
+
+    @NonNull
+    public String getTableTitleWithEmoji() {
+        return (tableEmoji + " " + tableTitle).trim();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SearchResult that = (SearchResult) o;
+        return dataId == that.dataId && tableId == that.tableId && rowId == that.rowId && content.equals(that.content) && tableTitle.equals(that.tableTitle) && tableEmoji.equals(that.tableEmoji);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(dataId, tableId, rowId, content, tableTitle, tableEmoji);
+    }
+}
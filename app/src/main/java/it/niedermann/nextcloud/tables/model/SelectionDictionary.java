@@ -0,0 +1,94 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+
+/**
+ * Resolves the labels of {@link SelectionOption}s by {@link Column#getId()} and {@link SelectionOption#getRemoteId()}.
+ * Formatted cell values are cached per distinct value, because the same few values usually repeat across many {@link it.niedermann.nextcloud.tables.database.entity.Row}s.
+ */
+public class SelectionDictionary {
+
+    private static final SelectionDictionary EMPTY = new SelectionDictionary(Collections.emptyList());
+    /**
+     * key: {@link Column#getId()}, value: (key: {@link SelectionOption#getRemoteId()}, value: {@link SelectionOption#getLabel()})
+     */
+    private final Map<Long, Map<Long, String>> labels = new HashMap<>();
+    /**
+     * key: {@link Column#getId()}, value: (key: raw cell value, value: formatted labels)
+     */
+    private final Map<Long, Map<String, String>> formattedValues = new HashMap<>();
+
+    public SelectionDictionary(@NonNull Collection<SelectionOption> selectionOptions) {
+        for (final var selectionOption : selectionOptions) {
+            final var remoteId = selectionOption.getRemoteId();
+            if (remoteId != null) {
+                labels.computeIfAbsent(selectionOption.getColumnId(), columnId -> new HashMap<>())
+                        .put(remoteId, selectionOption.getLabel());
+            }
+        }
+    }
+
+    @NonNull
+    public static SelectionDictionary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * @return an empty {@link String} if there is no {@link SelectionOption} with the given {@link SelectionOption#getRemoteId()}
+     */
+    @NonNull
+    public String getLabel(long columnId, long remoteSelectionOptionId) {
+        final var label = labels.getOrDefault(columnId, Collections.emptyMap()).get(remoteSelectionOptionId);
+        return label == null ? "" : label;
+    }
+
+    /**
+     * @param value comma separated {@link SelectionOption#getRemoteId()}s
+     * @return the labels of the given {@link SelectionOption}s, ordered by {@link SelectionOption#getRemoteId()}
+     */
+    @MainThread
+    @NonNull
+    public String format(long columnId, @Nullable String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+
+        final var formattedValuesOfColumn = formattedValues.computeIfAbsent(columnId, id -> new HashMap<>());
+        var formattedValue = formattedValuesOfColumn.get(value);
+        if (formattedValue == null) {
+            formattedValue = Arrays.stream(value.split(","))
+                    .map(Long::parseLong)
+                    .sorted()
+                    .map(remoteSelectionOptionId -> getLabel(columnId, remoteSelectionOptionId))
+                    .collect(Collectors.joining(", "));
+            formattedValuesOfColumn.put(value, formattedValue);
+        }
+
+        return formattedValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SelectionDictionary that = (SelectionDictionary) o;
+        return labels.equals(that.labels);
+    }
+
+    @Override
+    public int hashCode() {
+        return labels.hashCode();
+    }
+}
@@ -0,0 +1,70 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.Objects;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+
+/**
+ * Number of not deleted {@link it.niedermann.nextcloud.tables.database.entity.Row}s referencing a {@link SelectionOption}.
+ */
+public class SelectionOptionCount {
+
+    private long columnId;
+    @NonNull
+    private String label = "";
+    private long valueCount;
+
+    public SelectionOptionCount() {
+        // Default constructor
+    }
+
+    public SelectionOptionCount(long columnId, @NonNull String label, long valueCount) {
+        this.columnId = columnId;
+        this.label = label;
+        this.valueCount = valueCount;
+    }
+
+    /**
+     * @return {@link Column#getId()}
+     */
+    public long getColumnId() {
+        return columnId;
+    }
+
+    public void setColumnId(long columnId) {
+        this.columnId = columnId;
+    }
+
+    @NonNull
+    public String getLabel() {
+        return label;
+    }
+
+    public void setLabel(@NonNull String label) {
+        this.label = label;
+    }
+
+    public long getValueCount() {
+        return valueCount;
+    }
+
+    public void setValueCount(long valueCount) {
+        this.valueCount = valueCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        SelectionOptionCount that = (SelectionOptionCount) o;
+        return columnId == that.columnId && valueCount == that.valueCount && label.equals(that.label);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(columnId, label, valueCount);
+    }
+}
@@ -0,0 +1,93 @@
+package it.niedermann.nextcloud.tables.model;
+
+import androidx.annotation.NonNull;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+
+/**
+ * Resolves the {@link EDataType} of each {@link Column} once, so binding and (de)serializing cells only needs a lookup by position or {@link Column#getId()}.
+ * Needs to be recreated whenever the {@link Column}s change.
+ */
+public class TableSchema {
+
+    private static final TableSchema EMPTY = new TableSchema(Collections.emptyList());
+    private final List<Column> columns;
+    private final EDataType[] types;
+    private final int[] viewTypes;
+    private final Map<Long, EDataType> typesByColumnId;
+
+    public TableSchema(@NonNull List<Column> columns) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.types = new EDataType[columns.size()];
+        this.viewTypes = new int[columns.size()];
+        this.typesByColumnId = new HashMap<>(columns.size() * 2);
+
+        for (int position = 0; position < columns.size(); position++) {
+            final var column = columns.get(position);
+            final var type = EDataType.findByColumn(column);
+            types[position] = type;
+            viewTypes[position] = type.getId();
+            typesByColumnId.put(column.getId(), type);
+        }
+    }
+
+    @NonNull
+    public static TableSchema empty() {
+        return EMPTY;
+    }
+
+    @NonNull
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public int getColumnCount() {
+        return types.length;
+    }
+
+    @NonNull
+    public EDataType getType(int columnPosition) {
+        return types[columnPosition];
+    }
+
+    /**
+     * @return {@link EDataType#getId()} of the {@link Column} at the given position, used to dispatch to the matching renderer
+     */
+    public int getViewType(int columnPosition) {
+        return viewTypes[columnPosition];
+    }
+
+    @NonNull
+    public EDataType getTypeForData(@NonNull Data data) {
+        final var type = typesByColumnId.get(data.getColumnId());
+        if (type != null) {
+            return type;
+        }
+
+        if (FeatureToggle.STRICT_MODE.enabled) {
+            throw new IllegalStateException("Failed to find column for " + data + " (remoteColumnId: " + data.getRemoteColumnId() + ")");
+        }
+
+        return EDataType.UNKNOWN;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TableSchema that = (TableSchema) o;
+        return columns.equals(that.columns);
+    }
+
+    @Override
+    public int hashCode() {
+        return columns.hashCode();
+    }
+}
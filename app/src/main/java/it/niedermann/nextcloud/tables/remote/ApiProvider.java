@@ -5,42 +5,45 @@ import android.content.Context;
 import androidx.annotation.NonNull;
 import androidx.annotation.WorkerThread;
 
-import com.google.gson.GsonBuilder;
-import com.nextcloud.android.sso.AccountImporter;
-import com.nextcloud.android.sso.api.NextcloudAPI;
 import com.nextcloud.android.sso.exceptions.NextcloudFilesAppAccountNotFoundException;
 
-import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import it.niedermann.nextcloud.tables.database.entity.Account;
-import it.niedermann.nextcloud.tables.remote.adapter.InstantAdapter;
 import it.niedermann.nextcloud.tables.remote.api.OcsAPI;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
-import retrofit2.NextcloudRetrofitApiBuilder;
+import it.niedermann.nextcloud.tables.remote.api.TablesStreamingAPI;
 
+/**
+ * Lease of the pooled binding of an {@link Account}, see {@link ApiProviderPool}. Closing it returns the binding to the pool.
+ */
 @WorkerThread
 public class ApiProvider<T> implements AutoCloseable {
 
     private static final String API_ENDPOINT_OCS = "/ocs/v2.php/cloud/";
     private static final String API_ENDPOINT_TABLES = "/index.php/apps/tables/api/1/";
-    private final NextcloudAPI nextcloudAPI;
+    private final ApiProviderPool pool;
+    private final ApiProviderPool.Connection connection;
+    private final String endpoint;
     private final T api;
+    private final AtomicBoolean closed = new AtomicBoolean(false);
 
-    private ApiProvider(@NonNull Context context, @NonNull Account account, @NonNull Class<T> clazz, @NonNull String endpoint) throws NextcloudFilesAppAccountNotFoundException {
-        this.nextcloudAPI = new NextcloudAPI(
-                context,
-                AccountImporter.getSingleSignOnAccount(context, account.getAccountName()),
-                new GsonBuilder()
-                        .registerTypeAdapter(Instant.class, new InstantAdapter(TablesAPI.FORMATTER_PROPERTIES_DATE_TIME))
-                        .create(),
-                Throwable::printStackTrace
-        );
-
-        this.api = new NextcloudRetrofitApiBuilder(nextcloudAPI, endpoint).create(clazz);
+    private ApiProvider(@NonNull ApiProviderPool pool, @NonNull ApiProviderPool.Connection connection, @NonNull Class<T> clazz, @NonNull String endpoint) {
+        this.pool = pool;
+        this.connection = connection;
+        this.endpoint = endpoint;
+        this.api = connection.getApi(clazz, endpoint);
     }
 
     public static <T> ApiProvider<T> of(@NonNull Context context, @NonNull Account account, @NonNull Class<T> clazz, @NonNull String endpoint) throws NextcloudFilesAppAccountNotFoundException {
-        return new ApiProvider<>(context, account, clazz, endpoint);
+        final var pool = ApiProviderPool.getInstance(context);
+        final var connection = pool.acquire(account);
+        try {
+            return new ApiProvider<>(pool, connection, clazz, endpoint);
+        } catch (RuntimeException e) {
+            pool.release(connection);
+            throw e;
+        }
     }
 
     public static ApiProvider<OcsAPI> getOcsApiProvider(@NonNull Context context, @NonNull Account account) throws NextcloudFilesAppAccountNotFoundException {
@@ -55,8 +58,17 @@ public class ApiProvider<T> implements AutoCloseable {
         return this.api;
     }
 
+    /**
+     * Only applicable for providers created via {@link #getTablesApiProvider(Context, Account)}.
+     */
+    public TablesStreamingAPI getTablesStreamingApi() {
+        return connection.getTablesStreamingApi(endpoint);
+    }
+
     @Override
     public void close() {
-        this.nextcloudAPI.close();
+        if (closed.compareAndSet(false, true)) {
+            pool.release(connection);
+        }
     }
 }
@@ -0,0 +1,307 @@
+package it.niedermann.nextcloud.tables.remote;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.nextcloud.android.sso.AccountImporter;
+import com.nextcloud.android.sso.api.NextcloudAPI;
+import com.nextcloud.android.sso.exceptions.NextcloudFilesAppAccountNotFoundException;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.remote.adapter.InstantAdapter;
+import it.niedermann.nextcloud.tables.remote.adapter.RowStreamReader;
+import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
+import it.niedermann.nextcloud.tables.remote.api.TablesStreamingAPI;
+import retrofit2.NextcloudRetrofitApiBuilder;
+
+/**
+ * Keeps one warm {@link NextcloudAPI} binding per {@link Account} which is shared by all {@link ApiProvider}s of this {@link Account}, no matter which endpoint they use.
+ * Bindings which have not been leased for {@link #IDLE_TIMEOUT_MILLIS} are closed, so the Files app is not kept alive forever.
+ */
+public class ApiProviderPool {
+
+    private static final String TAG = ApiProviderPool.class.getSimpleName();
+    private static final long IDLE_TIMEOUT_MILLIS = 60_000L;
+    private static volatile ApiProviderPool instance;
+
+    private final Context context;
+    private final Gson gson;
+    private final ScheduledExecutorService evictionExecutor;
+    private final Map<Long, Connection> connections = new HashMap<>();
+    private boolean evictionScheduled = false;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+    private long totalSetupMillis = 0;
+
+    public static ApiProviderPool getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (ApiProviderPool.class) {
+                if (instance == null) {
+                    instance = new ApiProviderPool(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private ApiProviderPool(@NonNull Context context) {
+        this.context = context;
+        this.gson = new GsonBuilder()
+                .registerTypeAdapter(Instant.class, new InstantAdapter(TablesAPI.FORMATTER_PROPERTIES_DATE_TIME))
+                .create();
+        this.evictionExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final var thread = new Thread(runnable, "api-provider-eviction");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Each {@link Connection} must be passed to {@link #release(Connection)} exactly once.
+     */
+    @NonNull
+    synchronized Connection acquire(@NonNull Account account) throws NextcloudFilesAppAccountNotFoundException {
+        final var connection = connections.get(account.getId());
+        if (connection != null && connection.accountName.equals(account.getAccountName())) {
+            hits++;
+            connection.leases++;
+            return connection;
+        }
+
+        if (connection != null) {
+            retire(connection);
+        }
+
+        misses++;
+        final var startedAt = SystemClock.elapsedRealtime();
+        final var newConnection = new Connection(account);
+        final var setupMillis = SystemClock.elapsedRealtime() - startedAt;
+        totalSetupMillis += setupMillis;
+        Log.v(TAG, "Set up binding of " + account.getAccountName() + " in " + setupMillis + "ms");
+
+        newConnection.leases++;
+        if (!newConnection.retired) {
+            connections.put(account.getId(), newConnection);
+        }
+        return newConnection;
+    }
+
+    synchronized void release(@NonNull Connection connection) {
+        connection.leases--;
+        if (connection.leases > 0) {
+            return;
+        }
+
+        if (connection.retired) {
+            connection.close();
+        } else {
+            connection.idleSince = SystemClock.elapsedRealtime();
+            scheduleEviction(IDLE_TIMEOUT_MILLIS);
+        }
+    }
+
+    /**
+     * Closes the binding of the given {@link Account}, e.g. after it has been deleted. {@link ApiProvider}s which are still open can be used until they are closed.
+     */
+    public synchronized void invalidate(@NonNull Account account) {
+        final var connection = connections.get(account.getId());
+        if (connection != null) {
+            retire(connection);
+        }
+    }
+
+    @NonNull
+    public synchronized Metrics getMetrics() {
+        int leases = 0;
+        for (final var connection : connections.values()) {
+            leases += connection.leases;
+        }
+        return new Metrics(connections.size(), leases, hits, misses, evictions, misses == 0 ? 0 : totalSetupMillis / misses);
+    }
+
+    /**
+     * Removes the {@link Connection} from the pool and closes it as soon as it is not leased anymore.
+     */
+    private void retire(@NonNull Connection connection) {
+        connections.remove(connection.accountId, connection);
+        connection.retired = true;
+        if (connection.leases == 0) {
+            connection.close();
+        }
+    }
+
+    private void scheduleEviction(long delayMillis) {
+        if (!evictionScheduled) {
+            evictionScheduled = true;
+            evictionExecutor.schedule(this::evictIdle, delayMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private synchronized void evictIdle() {
+        evictionScheduled = false;
+        final var now = SystemClock.elapsedRealtime();
+        long nextDelay = Long.MAX_VALUE;
+        for (final var iterator = connections.values().iterator(); iterator.hasNext(); ) {
+            final var connection = iterator.next();
+            if (connection.leases > 0) {
+                continue;
+            }
+
+            final var idleMillis = now - connection.idleSince;
+            if (idleMillis >= IDLE_TIMEOUT_MILLIS) {
+                Log.v(TAG, "Closing idle binding of " + connection.accountName);
+                iterator.remove();
+                connection.retired = true;
+                connection.close();
+                evictions++;
+            } else {
+                nextDelay = Math.min(nextDelay, IDLE_TIMEOUT_MILLIS - idleMillis);
+            }
+        }
+
+        if (nextDelay != Long.MAX_VALUE) {
+            scheduleEviction(nextDelay);
+        }
+    }
+
+    private synchronized void onError(@NonNull Connection connection, @NonNull Throwable throwable) {
+        Log.w(TAG, "Binding of " + connection.accountName + " failed, it will be recreated on next use", throwable);
+        if (!connection.retired) {
+            retire(connection);
+        }
+    }
+
+    /**
+     * One {@link NextcloudAPI} binding and the API proxies which have been created for it. Leases are guarded by the {@link ApiProviderPool}.
+     */
+    class Connection {
+
+        private final long accountId;
+        @NonNull
+        private final String accountName;
+        @NonNull
+        private final NextcloudAPI nextcloudAPI;
+        /**
+         * key: endpoint
+         */
+        private final Map<String, Object> apis = new ConcurrentHashMap<>();
+        @Nullable
+        private volatile RowStreamReader rowStreamReader;
+        private int leases = 0;
+        private long idleSince;
+        private boolean retired = false;
+        private boolean closed = false;
+
+        private Connection(@NonNull Account account) throws NextcloudFilesAppAccountNotFoundException {
+            this.accountId = account.getId();
+            this.accountName = account.getAccountName();
+            this.nextcloudAPI = new NextcloudAPI(
+                    context,
+                    AccountImporter.getSingleSignOnAccount(context, accountName),
+                    gson,
+                    throwable -> onError(this, throwable)
+            );
+        }
+
+        @NonNull
+        <T> T getApi(@NonNull Class<T> clazz, @NonNull String endpoint) {
+            return clazz.cast(apis.computeIfAbsent(endpoint, key -> new NextcloudRetrofitApiBuilder(nextcloudAPI, key).create(clazz)));
+        }
+
+        @NonNull
+        TablesStreamingAPI getTablesStreamingApi(@NonNull String endpoint) {
+            var reader = rowStreamReader;
+            if (reader == null) {
+                reader = new RowStreamReader(gson);
+                rowStreamReader = reader;
+            }
+            return new TablesStreamingAPI(nextcloudAPI, endpoint, reader);
+        }
+
+        private void close() {
+            if (!closed) {
+                closed = true;
+                nextcloudAPI.close();
+            }
+        }
+    }
+
+    public static class Metrics {
+
+        private final int connections;
+        private final int leases;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+        /**
+         * Time to look up the account and create a {@link NextcloudAPI}. The Files app is bound asynchronously afterwards, which is not included.
+         */
+        private final long averageSetupMillis;
+
+        private Metrics(int connections, int leases, long hits, long misses, long evictions, long averageSetupMillis) {
+            this.connections = connections;
+            this.leases = leases;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+            this.averageSetupMillis = averageSetupMillis;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public int getLeases() {
+            return leases;
+        }
+
+        public long getHits() {
+            return hits;
+        }
+
+        public long getMisses() {
+            return misses;
+        }
+
+        public long getEvictions() {
+            return evictions;
+        }
+
+        public long getAverageSetupMillis() {
+            return averageSetupMillis;
+        }
+
+        /**
+         * @return share of leases which reused a warm binding, between 0 and 1
+         */
+        public double getHitRate() {
+            final var total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "connections: " + connections +
+                    ", leases: " + leases +
+                    ", hit rate: " + Math.round(getHitRate() * 100) + "%" +
+                    ", average setup: " + averageSetupMillis + "ms" +
+                    ", evictions: " + evictions;
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package it.niedermann.nextcloud.tables.remote;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.work.Constraints;
+import androidx.work.Data;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+
+import java.util.concurrent.TimeUnit;
+
+import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.repository.AccountRepository;
+import it.niedermann.nextcloud.tables.repository.TablesRepository;
+import it.niedermann.nextcloud.tables.repository.sync.SyncScheduler;
+
+/**
+ * Pushes local changes of one {@link Account}. Entities flagged as locally edited or deleted in the database act as outbox, so no change gets lost if the app is killed before the push happened.
+ * <p>
+ * Pushes are debounced by a delayed unique {@link androidx.work.WorkRequest} which gets replaced by each edit, so a burst of edits results in one push and the debounce survives the process.
+ * Once the delay has passed, the actual push is appended to a second unique {@link androidx.work.WorkRequest} per {@link Account},
+ * so a push is never running twice for the same {@link Account}, is not cancelled by subsequent edits and changes which arrive while a push is running will be picked up by a subsequent one.
+ */
+public class PushWorker extends Worker {
+
+    private static final String TAG = PushWorker.class.getSimpleName();
+    private static final String WORKER_TAG = "it.niedermann.nextcloud.tables.push";
+    private static final String KEY_ACCOUNT_ID = "accountId";
+    /**
+     * Marks the delayed request which only enqueues the actual push
+     */
+    private static final String KEY_DEBOUNCE = "debounce";
+    private static final long DEBOUNCE_MILLIS = 1_500L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final AccountRepository accountRepository;
+    private final TablesRepository tablesRepository;
+    private final SyncScheduler syncScheduler;
+
+    public PushWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
+        super(context, workerParams);
+        accountRepository = new AccountRepository(context);
+        tablesRepository = new TablesRepository(context);
+        syncScheduler = SyncScheduler.getInstance();
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        final var accountId = getInputData().getLong(KEY_ACCOUNT_ID, -1L);
+        if (getInputData().getBoolean(KEY_DEBOUNCE, false)) {
+            enqueue(getApplicationContext(), accountId);
+            return Result.success();
+        }
+
+        final var account = accountRepository.getAccountById(accountId);
+
+        if (account == null) {
+            Log.w(TAG, "Account with ID " + accountId + " does not exist anymore");
+            return Result.success();
+        }
+
+        try {
+            Log.i(TAG, "Pushing local changes for " + account.getAccountName());
+            syncScheduler.synchronizeAfterRunning(account, () -> tablesRepository.pushLocalChanges(account)).join();
+            return Result.success();
+        } catch (Exception e) {
+            e.printStackTrace();
+            return getRunAttemptCount() < MAX_ATTEMPTS ? Result.retry() : Result.failure();
+        }
+    }
+
+    /**
+     * Schedules a push of all local changes of the given {@link Account}. Subsequent calls within {@link #DEBOUNCE_MILLIS} are coalesced.
+     */
+    public static void schedule(@NonNull Context context, long accountId) {
+        final var workRequest = new OneTimeWorkRequest
+                .Builder(PushWorker.class)
+                .setInitialDelay(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)
+                .setInputData(new Data.Builder()
+                        .putLong(KEY_ACCOUNT_ID, accountId)
+                        .putBoolean(KEY_DEBOUNCE, true)
+                        .build())
+                .addTag(WORKER_TAG)
+                .build();
+
+        WorkManager
+                .getInstance(context.getApplicationContext())
+                .enqueueUniqueWork(WORKER_TAG + ".debounce." + accountId, ExistingWorkPolicy.REPLACE, workRequest);
+    }
+
+    private static void enqueue(@NonNull Context context, long accountId) {
+        final var constraints = new Constraints
+                .Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        final var workRequest = new OneTimeWorkRequest
+                .Builder(PushWorker.class)
+                .setConstraints(constraints)
+                .setInputData(new Data.Builder().putLong(KEY_ACCOUNT_ID, accountId).build())
+                .addTag(WORKER_TAG)
+                .build();
+
+        Log.v(TAG, "Enqueueing push for account " + accountId);
+        WorkManager
+                .getInstance(context)
+                .enqueueUniqueWork(WORKER_TAG + "." + accountId, ExistingWorkPolicy.APPEND_OR_REPLACE, workRequest);
+    }
+}
@@ -5,6 +5,7 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 import androidx.work.Constraints;
+import androidx.work.Data;
 import androidx.work.ExistingPeriodicWorkPolicy;
 import androidx.work.NetworkType;
 import androidx.work.PeriodicWorkRequest;
@@ -13,28 +14,45 @@ import androidx.work.Worker;
 import androidx.work.WorkerParameters;
 
 import java.time.Instant;
-import java.util.concurrent.CountDownLatch;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicLong;
 
+import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.repository.AccountRepository;
 import it.niedermann.nextcloud.tables.repository.PreferencesRepository;
 import it.niedermann.nextcloud.tables.repository.TablesRepository;
+import it.niedermann.nextcloud.tables.repository.sync.SyncScheduler;
 
 public class SyncWorker extends Worker {
 
     private static final String TAG = SyncWorker.class.getSimpleName();
     private static final String WORKER_TAG = "it.niedermann.nextcloud.tables.background_synchronization";
+    public static final String KEY_ACCOUNTS_TOTAL = "accounts_total";
+    public static final String KEY_ACCOUNTS_FINISHED = "accounts_finished";
+    /**
+     * Suffixed with {@link Account#getAccountName()}, <code>boolean</code> value
+     */
+    public static final String KEY_PREFIX_SUCCESS = "success_";
+    /**
+     * Suffixed with {@link Account#getAccountName()}, duration in milliseconds as <code>long</code> value
+     */
+    public static final String KEY_PREFIX_DURATION = "duration_";
 
     private final AccountRepository accountRepository;
     private final TablesRepository tablesRepository;
     private final PreferencesRepository preferencesRepository;
+    private final SyncScheduler syncScheduler;
 
     public SyncWorker(@NonNull Context context, @NonNull WorkerParameters workerParams) {
         super(context, workerParams);
         accountRepository = new AccountRepository(context);
         tablesRepository = new TablesRepository(context);
         preferencesRepository = new PreferencesRepository(context);
+        syncScheduler = SyncScheduler.getInstance();
     }
 
     @NonNull
@@ -50,27 +68,80 @@ public class SyncWorker extends Worker {
                 return Result.success();
             }
 
-            final var success = new AtomicReference<>(Result.success());
-            final var latch = new CountDownLatch(accounts.size());
+            final var progress = new SyncProgress(accounts.size());
+            setProgressAsync(progress.toData());
 
-            for (final var account : accounts) {
-                try {
+            final var futures = accounts.stream().map(account -> {
+                final var startedAt = new AtomicLong(System.currentTimeMillis());
+                return syncScheduler.synchronize(account, () -> {
+                    startedAt.set(System.currentTimeMillis());
                     accountRepository.synchronizeAccount(account);
                     tablesRepository.synchronizeTables(account);
-                    latch.await();
-                } catch (Exception e) {
-                    e.printStackTrace();
-                    success.set(Result.failure());
-                }
+                }).whenComplete((result, throwable) -> {
+                    final var duration = System.currentTimeMillis() - startedAt.get();
+                    if (throwable == null) {
+                        Log.i(TAG, "Synchronized " + account.getAccountName() + " in " + duration + "ms");
+                    } else {
+                        Log.e(TAG, "Synchronizing " + account.getAccountName() + " failed after " + duration + "ms");
+                        throwable.printStackTrace();
+                    }
+                    setProgressAsync(progress.finished(account, throwable == null, duration));
+                });
+            }).toArray(CompletableFuture[]::new);
+
+            try {
+                CompletableFuture.allOf(futures).join();
+            } catch (CompletionException e) {
+                // Failures are reported per account
             }
 
-            return success.get();
+            Log.v(TAG, "Synchronization metrics: " + syncScheduler.getMetrics());
+            Log.v(TAG, "API provider metrics: " + ApiProviderPool.getInstance(getApplicationContext()).getMetrics());
+            final var output = progress.toData();
+            return progress.hasFailures() ? Result.failure(output) : Result.success(output);
         } finally {
             Log.i(TAG, "Finishing background synchronization.");
             preferencesRepository.setLastBackgroundSync(Instant.now());
         }
     }
 
+    /**
+     * Collects the result of each {@link Account} to be reported via {@link #setProgressAsync(Data)} and as output {@link Data}.
+     */
+    private static class SyncProgress {
+
+        private final int total;
+        private final Map<String, Object> values = new HashMap<>();
+        private int finished = 0;
+        private boolean hasFailures = false;
+
+        private SyncProgress(int total) {
+            this.total = total;
+        }
+
+        @NonNull
+        private synchronized Data finished(@NonNull Account account, boolean success, long duration) {
+            finished++;
+            hasFailures |= !success;
+            values.put(KEY_PREFIX_SUCCESS + account.getAccountName(), success);
+            values.put(KEY_PREFIX_DURATION + account.getAccountName(), duration);
+            return toData();
+        }
+
+        private synchronized boolean hasFailures() {
+            return hasFailures;
+        }
+
+        @NonNull
+        private synchronized Data toData() {
+            return new Data.Builder()
+                    .putAll(values)
+                    .putInt(KEY_ACCOUNTS_TOTAL, total)
+                    .putInt(KEY_ACCOUNTS_FINISHED, finished)
+                    .build();
+        }
+    }
+
     /**
      * Removes existing {@link SyncWorker} instances and, if background sync is enabled according to the user preferences, it will add a {@link SyncWorker} instance again.
      */
@@ -15,12 +15,10 @@ import com.google.gson.JsonPrimitive;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
-import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
-import it.niedermann.nextcloud.tables.database.entity.Column;
 import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.model.EDataType;
+import it.niedermann.nextcloud.tables.model.TableSchema;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
 import it.niedermann.nextcloud.tables.remote.util.TablesSerializationUtil;
 
@@ -42,11 +40,11 @@ public class DataAdapter {
      * @see TablesAPI#createRow(long, JsonElement)
      */
     @NonNull
-    public JsonElement serialize(@NonNull List<Column> columns, @NonNull Data[] dataset) {
+    public JsonElement serialize(@NonNull TableSchema schema, @NonNull Data[] dataset) {
         final var properties = new JsonObject();
 
         for (final var data : dataset) {
-            properties.add(String.valueOf(data.getRemoteColumnId()), serialize(getTypeForData(columns, data), data));
+            properties.add(String.valueOf(data.getRemoteColumnId()), serialize(schema.getTypeForData(data), data));
         }
 
         return properties;
@@ -85,11 +83,11 @@ public class DataAdapter {
     }
 
     @NonNull
-    public Data[] deserialize(@NonNull List<Column> columns, @NonNull Data[] dataset) {
+    public Data[] deserialize(@NonNull TableSchema schema, @NonNull Data[] dataset) {
         final var result = new ArrayList<Data>(dataset.length);
 
         for (final var data : dataset) {
-            result.add(deserialize(getTypeForData(columns, data), data));
+            result.add(deserialize(schema.getTypeForData(data), data));
         }
 
         return result.toArray(Data[]::new);
@@ -153,18 +151,4 @@ public class DataAdapter {
                 return value;
         }
     }
-
-    public EDataType getTypeForData(@NonNull List<Column> columns, @NonNull Data data) {
-        for (final var column : columns) {
-            if (column.getId() == data.getColumnId()) {
-                return EDataType.findByColumn(column);
-            }
-        }
-
-        if (FeatureToggle.STRICT_MODE.enabled) {
-            throw new IllegalStateException("Failed to find column for " + data + " (remoteColumnId: " + data.getRemoteColumnId() + ")");
-        }
-
-        return EDataType.UNKNOWN;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package it.niedermann.nextcloud.tables.remote.adapter;
+
+import androidx.annotation.NonNull;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+
+/**
+ * Reads a JSON array of {@link Row}s token by token and hands each {@link Row} to a {@link RowConsumer} as soon as it has been read,
+ * so only one {@link Row} of a page is held in memory at a time. {@link Data#getValue()} is still read by {@link ValueTypeAdapter}.
+ */
+public class RowStreamReader {
+
+    private final TypeAdapter<Row> rowAdapter;
+
+    public RowStreamReader(@NonNull Gson gson) {
+        this.rowAdapter = gson.getAdapter(Row.class);
+    }
+
+    /**
+     * @return the amount of {@link Row}s which have been read
+     */
+    public int read(@NonNull InputStream inputStream, @NonNull RowConsumer consumer) throws Exception {
+        try (final var reader = new JsonReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            if (reader.peek() == JsonToken.NULL) {
+                throw new IOException("Response body is null");
+            }
+
+            int count = 0;
+            reader.beginArray();
+            while (reader.hasNext()) {
+                consumer.accept(rowAdapter.read(reader));
+                count++;
+            }
+            reader.endArray();
+            return count;
+        }
+    }
+
+    public interface RowConsumer {
+        void accept(@NonNull Row row) throws Exception;
+    }
+}
@@ -0,0 +1,118 @@
+package it.niedermann.nextcloud.tables.remote.api;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import com.nextcloud.android.sso.aidl.NextcloudRequest;
+import com.nextcloud.android.sso.api.NextcloudAPI;
+import com.nextcloud.android.sso.api.Response;
+import com.nextcloud.android.sso.exceptions.NextcloudHttpRequestFailedException;
+
+import java.util.List;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.remote.adapter.RowStreamReader;
+
+/**
+ * Counterpart of {@link TablesAPI} for endpoints with potentially large responses.
+ * Instead of materializing the whole response body, entities are decoded one by one while the response is being read.
+ */
+@WorkerThread
+public class TablesStreamingAPI {
+
+    private static final String HEADER_ETAG = "ETag";
+    private static final String HEADER_IF_NONE_MATCH = "If-None-Match";
+    private static final int HTTP_NOT_MODIFIED = 304;
+    private final NextcloudAPI nextcloudAPI;
+    private final String endpoint;
+    private final RowStreamReader rowStreamReader;
+
+    public TablesStreamingAPI(@NonNull NextcloudAPI nextcloudAPI,
+                              @NonNull String endpoint,
+                              @NonNull RowStreamReader rowStreamReader) {
+        this.nextcloudAPI = nextcloudAPI;
+        this.endpoint = endpoint;
+        this.rowStreamReader = rowStreamReader;
+    }
+
+    /**
+     * Streaming variant of {@link TablesAPI#getRows(long, int, int)}.
+     *
+     * @param consumer will be called for each {@link Row} in the order of the response
+     */
+    @NonNull
+    public StreamedPage getRows(long tableId, int limit, int offset, @NonNull RowConsumer consumer) throws Exception {
+        return getRows(tableId, limit, offset, null, consumer);
+    }
+
+    /**
+     * @param ifNoneMatch <code>ETag</code> of a previous response. If the server responds with <code>HTTP 304</code>, the consumer will not be called and {@link StreamedPage#isNotModified()} is <code>true</code>.
+     * @see #getRows(long, int, int, RowConsumer)
+     */
+    @NonNull
+    public StreamedPage getRows(long tableId, int limit, int offset, @Nullable String ifNoneMatch, @NonNull RowConsumer consumer) throws Exception {
+        final var builder = new NextcloudRequest.Builder()
+                .setMethod("GET")
+                .setUrl(endpoint + "tables/" + tableId + "/rows")
+                .setParameter(Map.of(
+                        "limit", String.valueOf(limit),
+                        "offset", String.valueOf(offset)));
+
+        if (ifNoneMatch != null) {
+            builder.setHeader(Map.of(HEADER_IF_NONE_MATCH, List.of(ifNoneMatch)));
+        }
+
+        final Response response;
+        try {
+            response = nextcloudAPI.performNetworkRequestV2(builder.build());
+        } catch (NextcloudHttpRequestFailedException e) {
+            if (e.getStatusCode() == HTTP_NOT_MODIFIED) {
+                return new StreamedPage(0, ifNoneMatch, true);
+            }
+            throw e;
+        }
+
+        try (final var body = response.getBody()) {
+            final var eTagHeader = response.getPlainHeader(HEADER_ETAG);
+            final var eTag = eTagHeader == null ? null : eTagHeader.getValue();
+            final var size = rowStreamReader.read(body, row -> consumer.accept(row, eTag));
+            return new StreamedPage(size, eTag, false);
+        }
+    }
+
+    public interface RowConsumer {
+        void accept(@NonNull Row row, @Nullable String eTag) throws Exception;
+    }
+
+    public static class StreamedPage {
+
+        private final int size;
+        @Nullable
+        private final String eTag;
+        private final boolean notModified;
+
+        private StreamedPage(int size, @Nullable String eTag, boolean notModified) {
+            this.size = size;
+            this.eTag = eTag;
+            this.notModified = notModified;
+        }
+
+        /**
+         * @return the amount of entities which have been passed to the consumer
+         */
+        public int getSize() {
+            return size;
+        }
+
+        @Nullable
+        public String getETag() {
+            return eTag;
+        }
+
+        public boolean isNotModified() {
+            return notModified;
+        }
+    }
+}
@@ -15,6 +15,7 @@ import androidx.lifecycle.MutableLiveData;
 import androidx.lifecycle.Transformations;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +26,7 @@ import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.model.NextcloudVersion;
 import it.niedermann.nextcloud.tables.model.TablesVersion;
 import it.niedermann.nextcloud.tables.remote.ApiProvider;
+import it.niedermann.nextcloud.tables.remote.ApiProviderPool;
 import it.niedermann.nextcloud.tables.remote.api.OcsAPI;
 import it.niedermann.nextcloud.tables.remote.exception.ServerNotAvailableException;
 
@@ -33,18 +35,35 @@ public class AccountRepository {
 
     private static final String TAG = AccountRepository.class.getSimpleName();
     private static final String SHARED_PREFERENCES_KEY_CURRENT_ACCOUNT = "it.niedermann.nextcloud.tables.current_account";
+    private static final String SHARED_PREFERENCES_KEY_CAPABILITIES_CHECKED = "it.niedermann.nextcloud.tables.capabilities_checked_";
+    /**
+     * Capabilities and the user rarely change, so they are not fetched again within this period
+     */
+    public static final Duration DEFAULT_CAPABILITIES_TTL = Duration.ofMinutes(30);
     private final Context context;
     private final TablesDatabase db;
     private final ServerErrorHandler serverErrorHandler;
     private final SharedPreferences sharedPreferences;
+    private final Duration capabilitiesTtl;
     @SuppressWarnings("FieldCanBeLocal")
     private final LiveData<Long> currentAccountId$;
     private final LiveData<Account> currentAccount$;
 
     @MainThread
     public AccountRepository(@NonNull Context context) {
+        this(context, DEFAULT_CAPABILITIES_TTL);
+    }
+
+    @MainThread
+    public AccountRepository(@NonNull Context context, @NonNull Duration capabilitiesTtl) {
+        this(context, capabilitiesTtl, TablesDatabase.getInstance(context));
+    }
+
+    @MainThread
+    AccountRepository(@NonNull Context context, @NonNull Duration capabilitiesTtl, @NonNull TablesDatabase db) {
         this.context = context;
-        this.db = TablesDatabase.getInstance(context);
+        this.capabilitiesTtl = capabilitiesTtl;
+        this.db = db;
         this.serverErrorHandler = new ServerErrorHandler(context);
         this.sharedPreferences = PreferenceManager.getDefaultSharedPreferences(context);
         this.currentAccountId$ = new SharedPreferenceLongLiveData(sharedPreferences, SHARED_PREFERENCES_KEY_CURRENT_ACCOUNT, -1L);
@@ -79,6 +98,11 @@ public class AccountRepository {
         return db.getAccountDao().getAccounts$();
     }
 
+    @Nullable
+    public Account getAccountById(long id) {
+        return db.getAccountDao().getAccountById(id);
+    }
+
     public List<Account> getAccounts() {
         return db.getAccountDao().getAccounts();
     }
@@ -92,17 +116,57 @@ public class AccountRepository {
         db.getAccountDao().updateCurrentTable(accountId, tableId);
     }
 
+    /**
+     * Fetches capabilities and the user unless they have been fetched within the {@link #capabilitiesTtl}.
+     * If the capabilities have not been modified, the user is not fetched either.
+     * The {@link Account} is only written if something actually changed, so observers of the {@link Account} are not notified needlessly.
+     */
     public void synchronizeAccount(@NonNull Account account) throws Exception {
+        if (isCapabilitiesFresh(account)) {
+            Log.v(TAG, "Capabilities of " + account.getAccountName() + " are fresh, skipping synchronization");
+            return;
+        }
+
+        final var before = new Account(account);
         try (final var apiProvider = ApiProvider.getOcsApiProvider(context, account)) {
-            synchronizeCapabilities(apiProvider.getApi(), account);
+            if (!synchronizeCapabilities(apiProvider.getApi(), account)) {
+                Log.v(TAG, "Capabilities of " + account.getAccountName() + " have not been modified, skipping user");
+                markCapabilitiesChecked(account);
+                return;
+            }
+
             synchronizeUser(apiProvider.getApi(), account);
+        }
+
+        if (account.equals(before)) {
+            Log.v(TAG, "Account " + account.getAccountName() + " did not change");
+        } else {
             db.getAccountDao().update(account);
         }
+        markCapabilitiesChecked(account);
+    }
+
+    private void markCapabilitiesChecked(@NonNull Account account) {
+        sharedPreferences.edit()
+                .putLong(SHARED_PREFERENCES_KEY_CAPABILITIES_CHECKED + account.getId(), System.currentTimeMillis())
+                .apply();
     }
 
-    private void synchronizeCapabilities(@NonNull OcsAPI api, @NonNull Account account) throws Exception {
+    private boolean isCapabilitiesFresh(@NonNull Account account) {
+        if (account.getTablesVersion() == null || account.getNextcloudVersion() == null) {
+            return false;
+        }
+
+        final var checkedAt = sharedPreferences.getLong(SHARED_PREFERENCES_KEY_CAPABILITIES_CHECKED + account.getId(), -1L);
+        final var age = System.currentTimeMillis() - checkedAt;
+        return checkedAt >= 0 && age >= 0 && age < capabilitiesTtl.toMillis();
+    }
+
+    /**
+     * @return <code>false</code> if the capabilities have not been modified since the {@link Account#getETag()}
+     */
+    private boolean synchronizeCapabilities(@NonNull OcsAPI api, @NonNull Account account) throws Exception {
         final var response = api.getCapabilities(account.getETag()).execute();
-        //noinspection SwitchStatementWithTooFewBranches
         switch (response.code()) {
             case 200: {
                 final var body = response.body();
@@ -141,12 +205,16 @@ public class AccountRepository {
                 account.setNextcloudVersion(nextcloudVersion);
                 account.setETag(response.headers().get("ETag"));
                 account.setColor(Color.parseColor(ColorUtil.formatColorToParsableHexString(body.ocs.data.capabilities.theming.color)));
-                break;
+                return true;
+            }
+
+            case 304: {
+                return false;
             }
 
             default: {
                 serverErrorHandler.handle(response);
-                break;
+                return false;
             }
         }
     }
@@ -174,6 +242,8 @@ public class AccountRepository {
 
     public void deleteAccount(@NonNull Account account) {
         db.getAccountDao().delete(account);
+        sharedPreferences.edit().remove(SHARED_PREFERENCES_KEY_CAPABILITIES_CHECKED + account.getId()).apply();
+        ApiProviderPool.getInstance(context).invalidate(account);
     }
 
     public void guessCurrentTable(@NonNull Account account) {
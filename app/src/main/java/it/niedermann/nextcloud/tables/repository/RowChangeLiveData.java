@@ -0,0 +1,80 @@
+package it.niedermann.nextcloud.tables.repository;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+import androidx.lifecycle.MediatorLiveData;
+
+import it.niedermann.nextcloud.tables.database.dao.RowChangeDao;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
+import it.niedermann.nextcloud.tables.model.RowChanges;
+
+/**
+ * Emits the IDs of the {@link Row}s of one table which changed since the previous emission, based on the {@link RowChange} log.
+ * The first emission and emissions after bulk changes request a full reload.
+ * Observers must compare {@link RowChanges#getFromSeq()} with the last {@link RowChanges#getToSeq()} they have applied, because intermediate values might be dropped.
+ * While active, it is registered at the {@link RowChangeLog}, which keeps the {@link RowChange}s it has not consumed yet.
+ */
+public class RowChangeLiveData extends MediatorLiveData<RowChanges> {
+
+    private static final String TAG = RowChangeLiveData.class.getSimpleName();
+
+    /**
+     * Above this amount of changed {@link Row}s a full reload is cheaper than loading the {@link Row}s by ID
+     */
+    private static final int MAX_PATCH_SIZE = 500;
+    private final RowChangeLog log;
+    private final RowChangeDao dao;
+    private final long tableId;
+    /**
+     * Only accessed by the executor of the {@link RowChangeLog}
+     */
+    private long lastSeq = -1;
+
+    RowChangeLiveData(@NonNull RowChangeLog log, long tableId) {
+        this.log = log;
+        this.dao = log.getDao();
+        this.tableId = tableId;
+        addSource(dao.getLatestSeq$(tableId), latestSeq -> log.getExecutor().submit(() -> onLatestSeq(latestSeq)));
+    }
+
+    @Override
+    protected void onActive() {
+        log.getExecutor().submit(() -> log.register(this, lastSeq));
+        super.onActive();
+    }
+
+    @Override
+    protected void onInactive() {
+        super.onInactive();
+        log.getExecutor().submit(() -> log.unregister(this));
+    }
+
+    @WorkerThread
+    private void onLatestSeq(@Nullable Long latestSeq) {
+        final long seq = latestSeq == null ? 0 : latestSeq;
+
+        if (lastSeq < 0 || lastSeq < log.getPrunedSeq()) {
+            // Changes since the last emission are not completely known anymore
+            lastSeq = Math.max(seq, log.getPrunedSeq());
+            postValue(RowChanges.all(lastSeq));
+            log.consumed(this, lastSeq);
+            return;
+        }
+
+        if (seq <= lastSeq) {
+            return;
+        }
+
+        final var rowIds = dao.getChangedRowIds(tableId, lastSeq, seq);
+        Log.v(TAG, rowIds.size() + " rows of table " + tableId + " changed (seq " + lastSeq + " → " + seq + ")");
+        postValue(rowIds.size() > MAX_PATCH_SIZE
+                ? RowChanges.all(seq)
+                : RowChanges.of(lastSeq, seq, rowIds));
+        lastSeq = seq;
+        log.consumed(this, lastSeq);
+    }
+}
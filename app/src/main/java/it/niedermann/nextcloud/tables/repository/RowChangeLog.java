@@ -0,0 +1,104 @@
+package it.niedermann.nextcloud.tables.repository;
+
+import android.content.Context;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.WorkerThread;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import it.niedermann.nextcloud.tables.database.TablesDatabase;
+import it.niedermann.nextcloud.tables.database.dao.RowChangeDao;
+import it.niedermann.nextcloud.tables.database.entity.RowChange;
+
+/**
+ * App wide owner of the {@link RowChange} log. Active {@link RowChangeLiveData}s register here with the last sequence number they have applied.
+ * Consumed entries are only pruned when a consumer becomes inactive, so pruning does not cause additional emissions while tables are observed.
+ * All methods must be called on {@link #getExecutor()}.
+ */
+class RowChangeLog {
+
+    private static final String TAG = RowChangeLog.class.getSimpleName();
+    private static volatile RowChangeLog instance;
+
+    private final RowChangeDao dao;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    /**
+     * Last applied sequence number of each active consumer
+     */
+    private final Map<RowChangeLiveData, Long> consumedSeqs = new HashMap<>();
+    private long prunedSeq = 0;
+
+    static RowChangeLog getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (RowChangeLog.class) {
+                if (instance == null) {
+                    instance = new RowChangeLog(TablesDatabase.getInstance(context).getRowChangeDao());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private RowChangeLog(@NonNull RowChangeDao dao) {
+        this.dao = dao;
+    }
+
+    @NonNull
+    RowChangeDao getDao() {
+        return dao;
+    }
+
+    @NonNull
+    ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * @return all {@link RowChange}s up to this sequence number might have been deleted
+     */
+    @WorkerThread
+    long getPrunedSeq() {
+        return prunedSeq;
+    }
+
+    @WorkerThread
+    void register(@NonNull RowChangeLiveData consumer, long consumedSeq) {
+        consumedSeqs.put(consumer, consumedSeq);
+    }
+
+    /**
+     * Ignored for consumers which are not registered, e.g. because they became inactive in the meantime
+     */
+    @WorkerThread
+    void consumed(@NonNull RowChangeLiveData consumer, long consumedSeq) {
+        consumedSeqs.replace(consumer, consumedSeq);
+    }
+
+    /**
+     * Deletes the {@link RowChange}s which have been consumed by the given and all still active consumers.
+     * Sequence numbers are unique across all tables, so one minimum covers all of them.
+     */
+    @WorkerThread
+    void unregister(@NonNull RowChangeLiveData consumer) {
+        final var leavingSeq = consumedSeqs.remove(consumer);
+        if (leavingSeq == null) {
+            return;
+        }
+
+        long minSeq = leavingSeq;
+        for (final var consumedSeq : consumedSeqs.values()) {
+            minSeq = Math.min(minSeq, consumedSeq);
+        }
+
+        if (minSeq > prunedSeq) {
+            Log.v(TAG, "Pruning row changes up to seq " + minSeq);
+            dao.deleteUpTo(minSeq);
+            prunedSeq = minSeq;
+        }
+    }
+}
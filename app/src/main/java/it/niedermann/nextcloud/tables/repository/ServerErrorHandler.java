@@ -34,9 +34,21 @@ public class ServerErrorHandler {
     }
 
     public void handle(@NonNull Response<?> response, @NonNull String message, @NonNull Strategy strategy) throws Exception {
-        switch (response.code()) {
+        handle(response.code(), response.message(), message, strategy);
+    }
+
+    /**
+     * For requests which are not performed via Retrofit, like {@link it.niedermann.nextcloud.tables.remote.api.TablesStreamingAPI}
+     */
+    public void handle(@NonNull NextcloudHttpRequestFailedException exception, @NonNull String message) throws Exception {
+        final var cause = exception.getCause();
+        handle(exception.getStatusCode(), cause == null ? exception.getMessage() : cause.getMessage(), message, Strategy.THROW_ALWAYS_EXCEPT_NOT_MODIFIED);
+    }
+
+    private void handle(int code, @Nullable String responseMessage, @NonNull String message, @NonNull Strategy strategy) throws Exception {
+        switch (code) {
             case 304: {
-                Log.i(TAG, "HTTP " + response.code() + " Not Modified");
+                Log.i(TAG, "HTTP " + code + " Not Modified");
                 break;
             }
             case 500:
@@ -45,17 +57,17 @@ public class ServerErrorHandler {
                 throw new ServerNotAvailableException(ServerNotAvailableException.Reason.MAINTENANCE_MODE, message);
             case 520: {
                 for (final var handler : Handler.values()) {
-                    if (handler.canHandle(response.message())) {
+                    if (handler.canHandle(responseMessage)) {
                         throw handler.exception;
                     }
                 }
                 if (strategy == Strategy.THROW_ALWAYS_EXCEPT_NOT_MODIFIED) {
-                    throw new NextcloudHttpRequestFailedException(context, response.code(), new RuntimeException(message));
+                    throw new NextcloudHttpRequestFailedException(context, code, new RuntimeException(message));
                 }
             }
             default: {
                 if (strategy == Strategy.THROW_ALWAYS_EXCEPT_NOT_MODIFIED) {
-                    throw new NextcloudHttpRequestFailedException(context, response.code(), new RuntimeException(message));
+                    throw new NextcloudHttpRequestFailedException(context, code, new RuntimeException(message));
                 }
             }
         }
@@ -4,29 +4,42 @@ import android.content.Context;
 
 import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.WorkerThread;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.Transformations;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 import it.niedermann.nextcloud.tables.database.DBStatus;
 import it.niedermann.nextcloud.tables.database.TablesDatabase;
 import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
 import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.database.entity.Row;
 import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 import it.niedermann.nextcloud.tables.database.entity.Table;
 import it.niedermann.nextcloud.tables.model.EPermission;
+import it.niedermann.nextcloud.tables.model.RowChanges;
+import it.niedermann.nextcloud.tables.model.SearchResult;
+import it.niedermann.nextcloud.tables.model.SelectionOptionCount;
+import it.niedermann.nextcloud.tables.model.TableSchema;
 import it.niedermann.nextcloud.tables.remote.ApiProvider;
+import it.niedermann.nextcloud.tables.remote.PushWorker;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
 import it.niedermann.nextcloud.tables.remote.exception.InsufficientPermissionException;
 import it.niedermann.nextcloud.tables.repository.sync.AbstractSyncAdapter;
 import it.niedermann.nextcloud.tables.repository.sync.ColumnSyncAdapter;
 import it.niedermann.nextcloud.tables.repository.sync.RowSyncAdapter;
+import it.niedermann.nextcloud.tables.repository.sync.SyncIdentityMap;
 import it.niedermann.nextcloud.tables.repository.sync.TableSyncAdapter;
 import it.niedermann.nextcloud.tables.repository.util.ColumnReorderUtil;
+import it.niedermann.nextcloud.tables.repository.util.SearchQueryUtil;
+import it.niedermann.nextcloud.tables.repository.util.TypedValueUtil;
 
 @WorkerThread
 public class TablesRepository extends AbstractSyncAdapter {
@@ -37,6 +50,8 @@ public class TablesRepository extends AbstractSyncAdapter {
     private final AbstractSyncAdapter columnSyncAdapter;
     private final AbstractSyncAdapter rowSyncAdapter;
     private final ColumnReorderUtil columnReorderUtil;
+    private final SearchQueryUtil searchQueryUtil;
+    private final TypedValueUtil typedValueUtil;
 
     public TablesRepository(@NonNull Context context) {
         this(TablesDatabase.getInstance(context), context);
@@ -49,7 +64,9 @@ public class TablesRepository extends AbstractSyncAdapter {
                 new TableSyncAdapter(db, context),
                 new ColumnSyncAdapter(db, context),
                 new RowSyncAdapter(db, context),
-                new ColumnReorderUtil());
+                new ColumnReorderUtil(),
+                new SearchQueryUtil(),
+                new TypedValueUtil());
     }
 
     private TablesRepository(@NonNull TablesDatabase db,
@@ -57,36 +74,57 @@ public class TablesRepository extends AbstractSyncAdapter {
                              @NonNull AbstractSyncAdapter tableSyncAdapter,
                              @NonNull AbstractSyncAdapter columnSyncAdapter,
                              @NonNull AbstractSyncAdapter rowSyncAdapter,
-                             @NonNull ColumnReorderUtil columnReorderUtil) {
+                             @NonNull ColumnReorderUtil columnReorderUtil,
+                             @NonNull SearchQueryUtil searchQueryUtil,
+                             @NonNull TypedValueUtil typedValueUtil) {
         super(db, context);
         this.context = context;
         this.tableSyncAdapter = tableSyncAdapter;
         this.columnSyncAdapter = columnSyncAdapter;
         this.rowSyncAdapter = rowSyncAdapter;
         this.columnReorderUtil = columnReorderUtil;
+        this.searchQueryUtil = searchQueryUtil;
+        this.typedValueUtil = typedValueUtil;
     }
 
     public void synchronizeTables(@NonNull Account account) throws Exception {
         try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            final var api = apiProvider.getApi();
+            final var identityMap = new SyncIdentityMap(db, account);
+            pushLocalChanges(apiProvider, account, identityMap);
+            pullRemoteChanges(apiProvider, account, identityMap);
+        }
+    }
 
-            pushLocalChanges(api, account);
-            pullRemoteChanges(api, account);
+    /**
+     * Pushes all local changes of the given {@link Account} immediately.
+     *
+     * @see #schedulePush(Account)
+     */
+    public void pushLocalChanges(@NonNull Account account) throws Exception {
+        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
+            pushLocalChanges(apiProvider, account, new SyncIdentityMap(db, account));
         }
     }
 
+    /**
+     * Changes are persisted locally first and will be pushed deferred, so bursts of changes result in one push and callers never wait for the network.
+     */
+    private void schedulePush(@NonNull Account account) {
+        PushWorker.schedule(context, account.getId());
+    }
+
     @Override
-    public void pushLocalChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
-        tableSyncAdapter.pushLocalChanges(api, account);
-        columnSyncAdapter.pushLocalChanges(api, account);
-        rowSyncAdapter.pushLocalChanges(api, account);
+    public void pushLocalChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        tableSyncAdapter.pushLocalChanges(apiProvider, account, identityMap);
+        columnSyncAdapter.pushLocalChanges(apiProvider, account, identityMap);
+        rowSyncAdapter.pushLocalChanges(apiProvider, account, identityMap);
     }
 
     @Override
-    public void pullRemoteChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
-        tableSyncAdapter.pullRemoteChanges(api, account);
-        columnSyncAdapter.pullRemoteChanges(api, account);
-        rowSyncAdapter.pullRemoteChanges(api, account);
+    public void pullRemoteChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        tableSyncAdapter.pullRemoteChanges(apiProvider, account, identityMap);
+        columnSyncAdapter.pullRemoteChanges(apiProvider, account, identityMap);
+        rowSyncAdapter.pullRemoteChanges(apiProvider, account, identityMap);
     }
 
     public LiveData<List<Table>> getNotDeletedTables$(@NonNull Account account, boolean isShared) {
@@ -98,18 +136,54 @@ public class TablesRepository extends AbstractSyncAdapter {
         return Transformations.distinctUntilChanged(db.getTableDao().getNotDeletedTable$(id));
     }
 
+    /**
+     * @return number of not deleted {@link Row}s by {@link Table#getId()}, maintained by the database
+     */
+    @MainThread
+    public LiveData<Map<Long, Long>> getRowCounts$(@NonNull Account account) {
+        return Transformations.distinctUntilChanged(db.getAggregateDao().getRowCounts$(account.getId()));
+    }
+
+    @MainThread
+    public LiveData<List<ColumnAggregate>> getColumnAggregates$(@NonNull Table table) {
+        return Transformations.distinctUntilChanged(db.getAggregateDao().getColumnAggregates$(table.getId()));
+    }
+
     @MainThread
-    public LiveData<List<Row>> getNotDeletedRows$(@NonNull Table table) {
-        return Transformations.distinctUntilChanged(db.getRowDao().getNotDeletedRows$(table.getId()));
+    public LiveData<List<SelectionOptionCount>> getSelectionOptionCounts$(@NonNull Table table) {
+        return Transformations.distinctUntilChanged(db.getAggregateDao().getSelectionOptionCounts$(table.getId()));
+    }
+
+    public Table getTable(long id) {
+        return db.getTableDao().getTable(id);
+    }
+
+    public Row getRow(long id) {
+        return db.getRowDao().get(id);
+    }
+
+    /**
+     * @see RowChangeLiveData
+     */
+    @MainThread
+    public LiveData<RowChanges> getRowChanges$(@NonNull Table table) {
+        return new RowChangeLiveData(RowChangeLog.getInstance(context), table.getId());
+    }
+
+    /**
+     * @param rowIds <code>null</code> to get all not deleted {@link Row}s of the given {@link Table}
+     */
+    public List<Row> getNotDeletedRows(@NonNull Table table, @Nullable Collection<Long> rowIds) {
+        return rowIds == null
+                ? db.getRowDao().getNotDeletedRows(table.getId())
+                : db.getRowDao().getNotDeletedRows(table.getId(), rowIds);
     }
 
     public void createTable(@NonNull Account account, @NonNull Table table) throws Exception {
         table.setStatus(DBStatus.LOCAL_EDITED);
         table.setAccountId(account.getId());
         db.getTableDao().insert(table);
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void updateTable(@NonNull Account account, @NonNull Table table) throws Exception {
@@ -118,9 +192,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         }
         table.setStatus(DBStatus.LOCAL_EDITED);
         db.getTableDao().update(table);
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void deleteTable(@NonNull Table table) throws Exception {
@@ -130,9 +202,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         table.setStatus(DBStatus.LOCAL_DELETED);
         db.getTableDao().update(table);
         final var account = db.getAccountDao().getAccountById(table.getAccountId());
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void createColumn(@NonNull Account account, @NonNull Table table, @NonNull Column column) throws Exception {
@@ -142,9 +212,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         column.setStatus(DBStatus.LOCAL_EDITED);
         column.setAccountId(account.getId());
         db.getColumnDao().insert(column);
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void reorderColumn(@NonNull Account account, long tableId, @NonNull List<Long> newColumnOrder) throws Exception {
@@ -154,9 +222,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         for (final var entry : newOrderWeightsDiff.entrySet()) {
             db.getColumnDao().updateOrderWeight(entry.getKey(), entry.getValue());
         }
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void updateColumn(@NonNull Account account, @NonNull Table table, @NonNull Column column) throws Exception {
@@ -165,9 +231,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         }
         column.setStatus(DBStatus.LOCAL_EDITED);
         db.getColumnDao().update(column);
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void deleteColumn(@NonNull Table table, @NonNull Column column) throws Exception {
@@ -177,9 +241,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         column.setStatus(DBStatus.LOCAL_DELETED);
         db.getColumnDao().update(column);
         final var account = db.getAccountDao().getAccountById(column.getAccountId());
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void createRow(@NonNull Account account, @NonNull Table table, @NonNull Row row, @NonNull Data[] dataset) throws Exception {
@@ -189,13 +251,13 @@ public class TablesRepository extends AbstractSyncAdapter {
         row.setStatus(DBStatus.LOCAL_EDITED);
         row.setAccountId(account.getId());
         final var insertedRowId = db.getRowDao().insert(row);
+        final var schema = new TableSchema(db.getColumnDao().getNotDeletedColumns(table.getId()));
         for (final var data : dataset) {
             data.setRowId(insertedRowId);
+            typedValueUtil.fill(schema.getTypeForData(data), data);
             db.getDataDao().insert(data);
         }
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void updateRow(@NonNull Account account, @NonNull Table table, @NonNull Row row, @NonNull Data[] dataset) throws Exception {
@@ -205,8 +267,10 @@ public class TablesRepository extends AbstractSyncAdapter {
         row.setStatus(DBStatus.LOCAL_EDITED);
         row.setAccountId(account.getId());
         db.getRowDao().update(row);
+        final var schema = new TableSchema(db.getColumnDao().getNotDeletedColumns(table.getId()));
         for (final var data : dataset) {
             data.setRowId(row.getId());
+            typedValueUtil.fill(schema.getTypeForData(data), data);
             if (data.getValue() == null) {
                 db.getDataDao().delete(data);
             }
@@ -217,9 +281,7 @@ public class TablesRepository extends AbstractSyncAdapter {
                 data.setId(db.getDataDao().insert(data));
             }
         }
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     public void deleteRow(@NonNull Table table, @NonNull Row row) throws Exception {
@@ -229,9 +291,7 @@ public class TablesRepository extends AbstractSyncAdapter {
         row.setStatus(DBStatus.LOCAL_DELETED);
         db.getRowDao().update(row);
         final var account = db.getAccountDao().getAccountById(row.getAccountId());
-        try (final var apiProvider = ApiProvider.getTablesApiProvider(context, account)) {
-            pushLocalChanges(apiProvider.getApi(), account);
-        }
+        schedulePush(account);
     }
 
     @MainThread
@@ -240,24 +300,35 @@ public class TablesRepository extends AbstractSyncAdapter {
     }
 
     public List<Column> getNotDeletedColumns(@NonNull Table table) {
-        final var columns = db.getColumnDao().getNotDeletedColumns(table.getId());
-        for (final var column : columns) {
-            // TODO perf: move to one query?
-            final var selectionOptions = db.getSelectionOptionDao().getNotDeletedSelectionOptions(column.getId());
-            column.setSelectionOptions(selectionOptions);
-        }
-        return columns;
+        return db.getColumnDao().getNotDeletedColumnsWithSelectionOptions(table.getId());
     }
 
-    @MainThread
-    public LiveData<List<Data>> getData(@NonNull Table table) {
-        return Transformations.distinctUntilChanged(db.getDataDao().getData(table.getId()));
+    public List<Data> getData(@NonNull Collection<Long> rowIds) {
+        return db.getDataDao().getDataForRows(rowIds);
     }
 
     public Data[] getRawData(long rowId) {
         return db.getDataDao().getDataForRow(rowId);
     }
 
+    /**
+     * Finds {@link Data} containing all terms of the given <code>query</code> as prefix. Each page is ranked by relevance.
+     *
+     * @param table <code>null</code> to search in all {@link Table}s of the given {@link Account}
+     */
+    public List<SearchResult> search(@NonNull Account account, @Nullable Table table, @NonNull String query, int limit, int offset) {
+        final var matchQuery = searchQueryUtil.toMatchQuery(query);
+        if (matchQuery == null) {
+            return Collections.emptyList();
+        }
+
+        final var results = table == null
+                ? db.getDataSearchDao().search(account.getId(), matchQuery, limit, offset)
+                : db.getDataSearchDao().searchInTable(table.getId(), matchQuery, limit, offset);
+        searchQueryUtil.rank(results);
+        return results;
+    }
+
     @MainThread
     public LiveData<List<SelectionOption>> getUsedSelectionOptions(@NonNull Table table) {
         return Transformations.distinctUntilChanged(db.getSelectionOptionDao().getUsedSelectionOptionsById(table.getId()));
@@ -6,6 +6,7 @@ import androidx.annotation.NonNull;
 
 import it.niedermann.nextcloud.tables.database.TablesDatabase;
 import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.remote.ApiProvider;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
 import it.niedermann.nextcloud.tables.repository.ServerErrorHandler;
 
@@ -20,7 +21,7 @@ public abstract class AbstractSyncAdapter {
         this.serverErrorHandler = new ServerErrorHandler(context);
     }
 
-    public abstract void pushLocalChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception;
+    public abstract void pushLocalChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception;
 
-    public abstract void pullRemoteChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception;
+    public abstract void pullRemoteChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception;
 }
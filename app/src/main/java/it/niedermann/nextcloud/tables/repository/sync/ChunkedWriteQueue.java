@@ -0,0 +1,103 @@
+package it.niedermann.nextcloud.tables.repository.sync;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Collects items into chunks and writes them on the given writer {@link ExecutorService} while the producer keeps going.
+ * At most <code>maxPendingChunks</code> chunks are queued or being written at a time, further {@link #add(Object)} calls block until one of them has been written.
+ * This keeps the amount of items held in memory bounded, no matter how many items are produced.
+ */
+class ChunkedWriteQueue<T> {
+
+    private final ExecutorService writeExecutor;
+    private final ChunkWriter<T> chunkWriter;
+    private final int chunkSize;
+    private final Semaphore pendingChunks;
+    private final List<Future<?>> futures = new LinkedList<>();
+    private List<T> buffer;
+
+    ChunkedWriteQueue(@NonNull ExecutorService writeExecutor,
+                      int chunkSize,
+                      int maxPendingChunks,
+                      @NonNull ChunkWriter<T> chunkWriter) {
+        this.writeExecutor = writeExecutor;
+        this.chunkWriter = chunkWriter;
+        this.chunkSize = chunkSize;
+        this.pendingChunks = new Semaphore(maxPendingChunks);
+        this.buffer = new ArrayList<>(chunkSize);
+    }
+
+    public void add(@NonNull T item) throws Exception {
+        buffer.add(item);
+        if (buffer.size() >= chunkSize) {
+            submitBuffer();
+        }
+    }
+
+    /**
+     * Writes the remaining items and blocks until all chunks have been written.
+     *
+     * @throws Exception the first {@link Exception} which occurred while writing a chunk
+     */
+    public void flush() throws Exception {
+        submitBuffer();
+        while (!futures.isEmpty()) {
+            awaitWritten(futures.remove(0));
+        }
+    }
+
+    private void submitBuffer() throws Exception {
+        if (buffer.isEmpty()) {
+            return;
+        }
+
+        final var chunk = buffer;
+        buffer = new ArrayList<>(chunkSize);
+
+        pendingChunks.acquire();
+        try {
+            futures.add(writeExecutor.submit(() -> {
+                try {
+                    chunkWriter.write(chunk);
+                    return null;
+                } finally {
+                    pendingChunks.release();
+                }
+            }));
+        } catch (Exception e) {
+            pendingChunks.release();
+            throw e;
+        }
+
+        // Fail fast instead of streaming the whole response when writing already failed
+        final var iterator = futures.iterator();
+        while (iterator.hasNext()) {
+            final var future = iterator.next();
+            if (future.isDone()) {
+                iterator.remove();
+                awaitWritten(future);
+            }
+        }
+    }
+
+    private void awaitWritten(@NonNull Future<?> future) throws Exception {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            final var cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    interface ChunkWriter<T> {
+        void write(@NonNull List<T> chunk) throws Exception;
+    }
+}
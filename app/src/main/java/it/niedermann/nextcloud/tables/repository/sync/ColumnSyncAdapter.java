@@ -1,5 +1,6 @@
 package it.niedermann.nextcloud.tables.repository.sync;
 
+import static java.util.stream.Collectors.toMap;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import android.content.Context;
@@ -7,11 +8,17 @@ import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import java.util.Objects;
+
 import it.niedermann.nextcloud.tables.database.DBStatus;
 import it.niedermann.nextcloud.tables.database.TablesDatabase;
 import it.niedermann.nextcloud.tables.database.entity.AbstractRemoteEntity;
 import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
 import it.niedermann.nextcloud.tables.remote.adapter.ColumnAdapter;
+import it.niedermann.nextcloud.tables.remote.ApiProvider;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
 
 public class ColumnSyncAdapter extends AbstractSyncAdapter {
@@ -25,7 +32,8 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
     }
 
     @Override
-    public void pushLocalChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pushLocalChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getApi();
         Log.v(TAG, "--- Pushing local columns for " + account.getAccountName());
         final var columnsToDelete = db.getColumnDao().getColumns(account.getId(), DBStatus.LOCAL_DELETED);
         for (final var column : columnsToDelete) {
@@ -44,11 +52,8 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
             }
         }
 
-        final var columnsToUpdate = db.getColumnDao().getColumns(account.getId(), DBStatus.LOCAL_EDITED);
+        final var columnsToUpdate = db.getColumnDao().getColumnsWithSelectionOptions(account.getId(), DBStatus.LOCAL_EDITED);
         for (final var column : columnsToUpdate) {
-            // TODO maybe this can be queried only once using MultiMap
-            column.setSelectionOptions(db.getSelectionOptionDao().getSelectionOptions(column.getId()));
-
             Log.i(TAG, "--- → PUT/POST: " + column.getTitle());
             final var response = column.getRemoteId() == null
                     ? api.createColumn(db.getTableDao().getRemoteId(column.getTableId()),
@@ -97,8 +102,14 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
                     throw new NullPointerException("Pushing changes for column " + column.getTitle() + " was successfull, but response body was empty");
                 }
 
+                final var created = column.getRemoteId() == null;
                 column.setRemoteId(body.getRemoteId());
-                db.getColumnDao().update(column);
+                db.runInTransaction(() -> {
+                    db.getColumnDao().update(column);
+                    if (created) {
+                        resetRowSyncState(column.getTableId());
+                    }
+                });
             } else {
                 serverErrorHandler.handle(response, "Could not push local changes for column " + column.getTitle());
             }
@@ -106,7 +117,8 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
     }
 
     @Override
-    public void pullRemoteChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pullRemoteChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getApi();
         for (final var table : db.getTableDao().getTables(account.getId())) {
             final var tableRemoteId = table.getRemoteId();
             if (tableRemoteId == null) {
@@ -124,50 +136,65 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
                     }
 
                     final var columnRemoteIds = columns.stream().map(AbstractRemoteEntity::getRemoteId).collect(toUnmodifiableSet());
-                    final var columnIds = db.getColumnDao().getColumnRemoteAndLocalIds(account.getId(), columnRemoteIds);
-
-                    for (final var column : columns) {
-                        column.setAccountId(account.getId());
-                        column.setTableId(table.getId());
-                        column.setETag(response.headers().get(HEADER_ETAG));
-                        column.setSelectionDefault(columnAdapter.deserializeSelectionDefault(column));
-
-                        final var columnId = columnIds.get(column.getRemoteId());
-                        if (columnId == null) {
-                            Log.i(TAG, "--- ← Adding column " + column.getTitle() + " to database");
-                            column.setId(db.getColumnDao().insert(column));
-                        } else {
-                            column.setId(columnId);
-                            Log.i(TAG, "--- ← Updating column " + column.getTitle() + " in database");
-                            db.getColumnDao().update(column);
-                        }
+                    final var tableIdentities = identityMap.getTable(table);
+                    final var previousColumns = tableIdentities.getSchema().getColumns().stream().collect(toMap(Column::getId, column -> column));
+                    db.runInTransaction(() -> {
+                        var schemaChanged = false;
+                        for (final var column : columns) {
+                            column.setAccountId(account.getId());
+                            column.setTableId(table.getId());
+                            column.setETag(response.headers().get(HEADER_ETAG));
+                            column.setSelectionDefault(columnAdapter.deserializeSelectionDefault(column));
+
+                            final var columnId = tableIdentities.getColumnId(column.getRemoteId());
+                            if (columnId == SyncIdentityMap.NO_ID) {
+                                Log.i(TAG, "--- ← Adding column " + column.getTitle() + " to database");
+                                column.setId(db.getColumnDao().insert(column));
+                                schemaChanged = true;
+                            } else {
+                                column.setId(columnId);
+                                final var previousColumn = previousColumns.get(columnId);
+                                if (previousColumn == null
+                                        || !Objects.equals(previousColumn.getType(), column.getType())
+                                        || !Objects.equals(previousColumn.getSubtype(), column.getSubtype())) {
+                                    schemaChanged = true;
+                                }
+                                Log.i(TAG, "--- ← Updating column " + column.getTitle() + " in database");
+                                db.getColumnDao().update(column);
+                            }
 
-                        final var selectionOptions = column.getSelectionOptions();
+                            final var selectionOptions = column.getSelectionOptions();
 
-                        final var selectionOptionRemoteIds = selectionOptions.stream().map(AbstractRemoteEntity::getRemoteId).collect(toUnmodifiableSet());
-                        final var selectionOptionIds = db.getSelectionOptionDao().getSelectionOptionRemoteAndLocalIds(column.getId(), selectionOptionRemoteIds);
+                            final var selectionOptionRemoteIds = selectionOptions.stream().map(AbstractRemoteEntity::getRemoteId).collect(toUnmodifiableSet());
+                            final var selectionOptionIds = db.getSelectionOptionDao().getSelectionOptionRemoteAndLocalIds(column.getId(), selectionOptionRemoteIds);
 
-                        for (final var selectionOption : selectionOptions) {
-                            selectionOption.setColumnId(column.getId());
-                            selectionOption.setAccountId(column.getAccountId());
+                            for (final var selectionOption : selectionOptions) {
+                                selectionOption.setColumnId(column.getId());
+                                selectionOption.setAccountId(column.getAccountId());
 
-                            final var selectionOptionId = selectionOptionIds.get(selectionOption.getRemoteId());
-                            if (selectionOptionId == null) {
-                                Log.i(TAG, "--- ← Adding selection option " + selectionOption.getLabel() + " to database");
-                                db.getSelectionOptionDao().insert(selectionOption);
-                            } else {
-                                selectionOption.setId(selectionOptionId);
-                                Log.i(TAG, "--- ← Updating selection option " + selectionOption.getLabel() + " in database");
-                                db.getSelectionOptionDao().update(selectionOption);
+                                final var selectionOptionId = selectionOptionIds.get(selectionOption.getRemoteId());
+                                if (selectionOptionId == null) {
+                                    Log.i(TAG, "--- ← Adding selection option " + selectionOption.getLabel() + " to database");
+                                    db.getSelectionOptionDao().insert(selectionOption);
+                                } else {
+                                    selectionOption.setId(selectionOptionId);
+                                    Log.i(TAG, "--- ← Updating selection option " + selectionOption.getLabel() + " in database");
+                                    db.getSelectionOptionDao().update(selectionOption);
+                                }
                             }
+
+                            final var deletedSelectionOptions = db.getReconciliationDao().deleteStaleSelectionOptions(column.getId(), selectionOptionRemoteIds);
+                            Log.i(TAG, "--- ← Deleted " + deletedSelectionOptions + " selection options of " + column.getTitle() + " which have not been fetched");
                         }
 
-                        Log.i(TAG, "--- ← Delete all selection options except remoteId " + selectionOptionRemoteIds);
-                        db.getSelectionOptionDao().deleteExcept(table.getId(), selectionOptionRemoteIds);
-                    }
+                        final var deletedColumns = db.getReconciliationDao().deleteStaleColumns(table.getId(), columnRemoteIds);
+                        Log.i(TAG, "--- ← Deleted " + deletedColumns + " columns of " + table.getTitle() + " which have not been fetched");
 
-                    Log.i(TAG, "--- ← Delete all columns except remoteId " + columnRemoteIds);
-                    db.getColumnDao().deleteExcept(table.getId(), columnRemoteIds);
+                        if (schemaChanged || deletedColumns > 0) {
+                            resetRowSyncState(table.getId());
+                        }
+                    });
+                    tableIdentities.invalidateColumns();
                     break;
                 }
 
@@ -177,4 +204,12 @@ public class ColumnSyncAdapter extends AbstractSyncAdapter {
             }
         }
     }
+
+    /**
+     * Adding a {@link Column} or changing its type does not change {@link Row#getLastEditAt()}, so the next pull must write all {@link Row}s again to fill the {@link Data} of the changed {@link Column}s.
+     */
+    private void resetRowSyncState(long tableId) {
+        Log.i(TAG, "--- Columns of table " + tableId + " changed, resetting row sync state");
+        db.getTableSyncStateDao().delete(tableId);
+    }
 }
@@ -0,0 +1,152 @@
+package it.niedermann.nextcloud.tables.repository.sync;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+/**
+ * Fetches an offset based paged resource while keeping up to <code>maxPagesInFlight</code> requests running, so the round trip time of the next pages overlaps with processing the current one.
+ * <p>
+ * Pages are always handed to the {@link PageConsumer} in order. The first page is requested alone, further pages are only requested speculatively once a full page has been received,
+ * so resources which fit into one page cause exactly one request. The page size adapts to the observed latency of each request.
+ * At most <code>maxPagesInFlight</code> pages and at most <code>maxItemsInFlight</code> entities are requested or held in memory at the same time.
+ */
+class PipelinedPager<P> {
+
+    private static final String TAG = PipelinedPager.class.getSimpleName();
+    /**
+     * Pages which have been responded faster than this will increase the page size
+     */
+    private static final long FAST_RESPONSE_MILLIS = 500L;
+    /**
+     * Pages which have been responded slower than this will decrease the page size
+     */
+    private static final long SLOW_RESPONSE_MILLIS = 3_000L;
+
+    private final ExecutorService networkExecutor;
+    private final int maxPagesInFlight;
+    private final int maxItemsInFlight;
+    private final int initialPageSize;
+    private final int minPageSize;
+    private final int maxPageSize;
+
+    PipelinedPager(@NonNull ExecutorService networkExecutor,
+                   int maxPagesInFlight,
+                   int initialPageSize,
+                   int minPageSize,
+                   int maxPageSize) {
+        this(networkExecutor, maxPagesInFlight, Integer.MAX_VALUE, initialPageSize, minPageSize, maxPageSize);
+    }
+
+    /**
+     * @param maxItemsInFlight limits the sum of the page sizes of all pages which are requested or held in memory. The first page is always requested.
+     */
+    PipelinedPager(@NonNull ExecutorService networkExecutor,
+                   int maxPagesInFlight,
+                   int maxItemsInFlight,
+                   int initialPageSize,
+                   int minPageSize,
+                   int maxPageSize) {
+        this.networkExecutor = networkExecutor;
+        this.maxPagesInFlight = maxPagesInFlight;
+        this.maxItemsInFlight = maxItemsInFlight;
+        this.initialPageSize = initialPageSize;
+        this.minPageSize = minPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Blocks until the last page, which is the first one containing less entities than requested, has been consumed.
+     */
+    public void fetchAll(@NonNull PageFetcher<P> fetcher, @NonNull PageConsumer<P> consumer) throws Exception {
+        final var inFlight = new ArrayDeque<InFlightPage<P>>(maxPagesInFlight);
+        int pageSize = initialPageSize;
+        int nextOffset = 0;
+        int itemsInFlight = pageSize;
+
+        inFlight.add(new InFlightPage<>(networkExecutor, fetcher, pageSize, nextOffset));
+        nextOffset += pageSize;
+
+        try {
+            while (!inFlight.isEmpty()) {
+                final var current = inFlight.poll();
+                final var size = consumer.accept(current.await(), current.offset, current.limit);
+                itemsInFlight -= current.limit;
+
+                if (size < current.limit) {
+                    break;
+                }
+
+                pageSize = adaptPageSize(pageSize, current.latencyMillis);
+
+                while (inFlight.size() < maxPagesInFlight && (inFlight.isEmpty() || itemsInFlight + pageSize <= maxItemsInFlight)) {
+                    inFlight.add(new InFlightPage<>(networkExecutor, fetcher, pageSize, nextOffset));
+                    nextOffset += pageSize;
+                    itemsInFlight += pageSize;
+                }
+            }
+        } finally {
+            // Speculative requests beyond the last page are not needed anymore
+            for (final var page : inFlight) {
+                page.future.cancel(true);
+            }
+        }
+    }
+
+    private int adaptPageSize(int pageSize, long latencyMillis) {
+        if (latencyMillis < FAST_RESPONSE_MILLIS && pageSize < maxPageSize) {
+            Log.v(TAG, "Response took " + latencyMillis + "ms, increasing page size");
+            return Math.min(pageSize * 2, maxPageSize);
+        } else if (latencyMillis > SLOW_RESPONSE_MILLIS && pageSize > minPageSize) {
+            Log.v(TAG, "Response took " + latencyMillis + "ms, decreasing page size");
+            return Math.max(pageSize / 2, minPageSize);
+        }
+        return pageSize;
+    }
+
+    private static class InFlightPage<P> {
+
+        private final int limit;
+        private final int offset;
+        private final Future<P> future;
+        private volatile long latencyMillis;
+
+        private InFlightPage(@NonNull ExecutorService executor, @NonNull PageFetcher<P> fetcher, int limit, int offset) {
+            this.limit = limit;
+            this.offset = offset;
+            this.future = executor.submit(() -> {
+                final var start = System.currentTimeMillis();
+                final var page = fetcher.fetch(limit, offset);
+                latencyMillis = System.currentTimeMillis() - start;
+                return page;
+            });
+        }
+
+        @NonNull
+        private P await() throws Exception {
+            try {
+                return future.get();
+            } catch (ExecutionException e) {
+                final var cause = e.getCause();
+                throw cause instanceof Exception ? (Exception) cause : e;
+            }
+        }
+    }
+
+    interface PageFetcher<P> {
+        @NonNull
+        P fetch(int limit, int offset) throws Exception;
+    }
+
+    interface PageConsumer<P> {
+        /**
+         * @return the amount of entities contained in the page
+         */
+        int accept(@NonNull P page, int offset, int limit) throws Exception;
+    }
+}
@@ -0,0 +1,71 @@
+package it.niedermann.nextcloud.tables.repository.sync;
+
+import androidx.annotation.NonNull;
+
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Runs independent push requests concurrently, while at most <code>maxInFlight</code> of them are running at the same time.
+ * {@link #submit(PushTask)} blocks while the window is full.
+ */
+class PushWindow {
+
+    private final ExecutorService executor;
+    private final Semaphore inFlight;
+    private final List<Future<?>> futures = new LinkedList<>();
+
+    PushWindow(@NonNull ExecutorService executor, int maxInFlight) {
+        this.executor = executor;
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    public void submit(@NonNull PushTask task) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            futures.add(executor.submit(() -> {
+                try {
+                    task.run();
+                    return null;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Blocks until all submitted {@link PushTask}s are done.
+     *
+     * @throws Exception the first {@link Exception} which occurred in a {@link PushTask}
+     */
+    public void await() throws Exception {
+        Exception firstException = null;
+        for (final var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (firstException == null) {
+                    final var cause = e.getCause();
+                    firstException = cause instanceof Exception ? (Exception) cause : e;
+                }
+            }
+        }
+        futures.clear();
+
+        if (firstException != null) {
+            throw firstException;
+        }
+    }
+
+    interface PushTask {
+        void run() throws Exception;
+    }
+}
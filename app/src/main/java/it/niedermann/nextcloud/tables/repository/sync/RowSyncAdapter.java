@@ -1,218 +1,441 @@
 package it.niedermann.nextcloud.tables.repository.sync;
 
+import static java.util.stream.Collectors.groupingBy;
 import static java.util.stream.Collectors.toUnmodifiableSet;
 
 import android.content.Context;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
-import java.util.Arrays;
+import com.nextcloud.android.sso.exceptions.NextcloudHttpRequestFailedException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
-import java.util.concurrent.CountDownLatch;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import it.niedermann.nextcloud.tables.database.DBStatus;
 import it.niedermann.nextcloud.tables.database.TablesDatabase;
-import it.niedermann.nextcloud.tables.database.entity.AbstractRemoteEntity;
 import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.database.entity.Column;
 import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.database.entity.TableSyncState;
+import it.niedermann.nextcloud.tables.model.TableSchema;
+import it.niedermann.nextcloud.tables.remote.ApiProvider;
 import it.niedermann.nextcloud.tables.remote.adapter.DataAdapter;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
+import it.niedermann.nextcloud.tables.remote.api.TablesStreamingAPI;
+import it.niedermann.nextcloud.tables.repository.util.TypedValueUtil;
 
 public class RowSyncAdapter extends AbstractSyncAdapter {
 
     private static final String TAG = RowSyncAdapter.class.getSimpleName();
+    /**
+     * Amount of {@link Row}s written within one database transaction. Also keeps <code>IN (…)</code> clauses below the SQLite bind variable limit.
+     */
+    private static final int TRANSACTION_CHUNK_SIZE = 500;
+    /**
+     * Amount of chunks per table which may wait for being written before streaming the response pauses.
+     */
+    private static final int MAX_PENDING_CHUNKS = 2;
+    /**
+     * Spreads the hash of each {@link Row} before summing them up to an order independent hash
+     */
+    private static final long HASH_MULTIPLIER = 0x9E3779B97F4A7C15L;
+    private static final int MAX_PAGES_IN_FLIGHT = 3;
+    private static final int MIN_PAGE_SIZE = 250;
+    private static final int MAX_PAGE_SIZE = 4 * TablesAPI.DEFAULT_API_LIMIT_ROWS;
+    /**
+     * {@link Row}s are streamed into the {@link ChunkedWriteQueue} while they are decoded, so this only limits the amount of {@link Row}s requested at once, not the ones held in memory
+     */
+    private static final int MAX_ROWS_IN_FLIGHT = MAX_PAGES_IN_FLIGHT * MAX_PAGE_SIZE;
+    private static final int MAX_PUSHES_IN_FLIGHT = 4;
     private final DataAdapter dataAdapter;
+    private final TypedValueUtil typedValueUtil;
     private final ExecutorService rowFetchExecutor;
+    private final ExecutorService networkExecutor;
+    private final ExecutorService dbWriteExecutor;
 
     public RowSyncAdapter(@NonNull TablesDatabase db, @NonNull Context context) {
-        this(db, new DataAdapter(), context, Executors.newCachedThreadPool());
+        this(db, new DataAdapter(), new TypedValueUtil(), context, SyncScheduler.getInstance());
+    }
+
+    private RowSyncAdapter(@NonNull TablesDatabase db,
+                           @NonNull DataAdapter dataAdapter,
+                           @NonNull TypedValueUtil typedValueUtil,
+                           @NonNull Context context,
+                           @NonNull SyncScheduler syncScheduler) {
+        this(db, dataAdapter, typedValueUtil, context, syncScheduler.getTableExecutor(), syncScheduler.getNetworkExecutor(), syncScheduler.getDbWriteExecutor());
     }
 
     private RowSyncAdapter(@NonNull TablesDatabase db,
                            @NonNull DataAdapter dataAdapter,
+                           @NonNull TypedValueUtil typedValueUtil,
                            @NonNull Context context,
-                           @NonNull ExecutorService rowFetchExecutor) {
+                           @NonNull ExecutorService rowFetchExecutor,
+                           @NonNull ExecutorService networkExecutor,
+                           @NonNull ExecutorService dbWriteExecutor) {
         super(db, context);
         this.dataAdapter = dataAdapter;
+        this.typedValueUtil = typedValueUtil;
         this.rowFetchExecutor = rowFetchExecutor;
+        this.networkExecutor = networkExecutor;
+        this.dbWriteExecutor = dbWriteExecutor;
     }
 
     @Override
-    public void pushLocalChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pushLocalChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getApi();
+        final var window = new PushWindow(networkExecutor, MAX_PUSHES_IN_FLIGHT);
+        final var start = System.currentTimeMillis();
+
         final var rowsToDelete = db.getRowDao().getLocallyDeletedRows(account.getId());
         Log.v(TAG, "------ Pushing " + rowsToDelete.size() + " local row deletions for " + account.getAccountName());
         for (final var row : rowsToDelete) {
-            Log.i(TAG, "------ → DELETE: " + row.getRemoteId());
             final var remoteId = row.getRemoteId();
             if (remoteId == null) {
                 db.getRowDao().delete(row);
             } else {
-                final var response = api.deleteRow(row.getRemoteId()).execute();
-                Log.i(TAG, "------ → HTTP " + response.code());
-                if (response.isSuccessful()) {
-                    db.getRowDao().delete(row);
-                } else {
-                    serverErrorHandler.handle(response, "Could not delete row " + row.getRemoteId());
-                }
+                window.submit(() -> {
+                    Log.i(TAG, "------ → DELETE: " + remoteId);
+                    final var response = api.deleteRow(remoteId).execute();
+                    Log.i(TAG, "------ → HTTP " + response.code());
+                    if (response.isSuccessful()) {
+                        db.getRowDao().delete(row);
+                    } else {
+                        serverErrorHandler.handle(response, "Could not delete row " + remoteId);
+                    }
+                });
             }
         }
 
         final var rowsToUpdate = db.getRowDao().getLocallyEditedRows(account.getId());
-        Log.v(TAG, "------ Pushing " + rowsToDelete.size() + " local row changes for " + account.getAccountName());
-
-        for (final var row : rowsToUpdate) {
-            Log.i(TAG, "------ → PUT/POST: " + row.getRemoteId());
-            final var dataset = db.getDataDao().getDataForRow(row.getId());
-            final var columns = db.getColumnDao().getColumns(Arrays.stream(dataset).map(Data::getColumnId).collect(toUnmodifiableSet()));
-
-            row.setData(dataset);
-
-            final var response = row.getRemoteId() == null
-                    // TODO perf: fetch all remoteIds at once
-                    ? api.createRow(db.getTableDao().getRemoteId(row.getTableId()), dataAdapter.serialize(columns, row.getData())).execute()
-                    : api.updateRow(row.getRemoteId(), dataAdapter.serialize(columns, row.getData())).execute();
-            Log.i(TAG, "------ → HTTP " + response.code());
-            if (response.isSuccessful()) {
-                row.setStatus(DBStatus.VOID);
-                final var body = response.body();
-                if (body == null) {
-                    throw new NullPointerException("Pushing changes for row " + row.getRemoteId() + " was successfully, but response body was empty");
-                }
+        Log.v(TAG, "------ Pushing " + rowsToUpdate.size() + " local row changes for " + account.getAccountName());
+
+        if (!rowsToUpdate.isEmpty()) {
+            final var schemasByTable = new HashMap<Long, TableSchema>();
+            db.getColumnDao().getColumns(account.getId()).stream()
+                    .collect(groupingBy(Column::getTableId))
+                    .forEach((tableId, columns) -> schemasByTable.put(tableId, new TableSchema(columns)));
+
+            for (int i = 0; i < rowsToUpdate.size(); i += TRANSACTION_CHUNK_SIZE) {
+                final var chunk = rowsToUpdate.subList(i, Math.min(i + TRANSACTION_CHUNK_SIZE, rowsToUpdate.size()));
+                final var dataByRow = db.getDataDao().getDataForRows(chunk.stream().map(Row::getId).collect(toUnmodifiableSet()))
+                        .stream()
+                        .collect(groupingBy(Data::getRowId));
+
+                for (final var row : chunk) {
+                    final var schema = schemasByTable.getOrDefault(row.getTableId(), TableSchema.empty());
+                    row.setData(dataByRow.getOrDefault(row.getId(), Collections.emptyList()).toArray(Data[]::new));
+                    final var properties = dataAdapter.serialize(schema, row.getData());
+
+                    window.submit(() -> {
+                        Log.i(TAG, "------ → PUT/POST: " + row.getRemoteId());
+                        final var response = row.getRemoteId() == null
+                                ? api.createRow(getTableRemoteId(identityMap, row), properties).execute()
+                                : api.updateRow(row.getRemoteId(), properties).execute();
+                        Log.i(TAG, "------ → HTTP " + response.code());
+                        if (response.isSuccessful()) {
+                            row.setStatus(DBStatus.VOID);
+                            final var body = response.body();
+                            if (body == null) {
+                                throw new NullPointerException("Pushing changes for row " + row.getRemoteId() + " was successfully, but response body was empty");
+                            }
 
-                row.setRemoteId(body.getRemoteId());
-                db.getRowDao().update(row);
-            } else {
-                serverErrorHandler.handle(response, "Could not push local changes for row " + row.getRemoteId());
+                            row.setRemoteId(body.getRemoteId());
+                            db.getRowDao().update(row);
+                        } else {
+                            serverErrorHandler.handle(response, "Could not push local changes for row " + row.getRemoteId());
+                        }
+                    });
+                }
             }
         }
+
+        window.await();
+
+        final var pushedRows = rowsToDelete.size() + rowsToUpdate.size();
+        if (pushedRows > 0) {
+            final var duration = Math.max(1L, System.currentTimeMillis() - start);
+            Log.i(TAG, "------ Pushed " + pushedRows + " rows for " + account.getAccountName() + " in " + duration + "ms (" + (pushedRows * 1_000L / duration) + " rows/s)");
+        }
+    }
+
+    private static long getTableRemoteId(@NonNull SyncIdentityMap identityMap, @NonNull Row row) {
+        final var tableRemoteId = identityMap.getTableRemoteId(row.getTableId());
+        if (tableRemoteId == SyncIdentityMap.NO_ID) {
+            throw new NullPointerException("Table " + row.getTableId() + " has no remote ID");
+        }
+        return tableRemoteId;
     }
 
     @Override
-    public void pullRemoteChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pullRemoteChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getTablesStreamingApi();
         final var tables = db.getTableDao().getTablesWithReadPermission(account.getId());
-        final var latch = new CountDownLatch(tables.size());
-        final var exceptions = new LinkedList<Exception>();
+        final var futures = new ArrayList<Future<?>>(tables.size());
 
         for (final var table : tables) {
-            rowFetchExecutor.submit(() -> {
+            futures.add(rowFetchExecutor.submit(() -> {
+                pullRemoteChanges(api, table, identityMap.getTable(table));
+                return null;
+            }));
+        }
+
+        final var exceptions = new LinkedList<Exception>();
+        for (final var future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                exceptions.add(e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+            }
+        }
+
+        if (exceptions.size() > 0) {
+            // TODO we can only throw one exception, do we need a custom type with a list or is the user supposed to handle them one by one?
+            for (final var exception : exceptions) {
+                exception.printStackTrace();
+            }
+            throw exceptions.get(0);
+        }
+    }
+
+    /**
+     * Pulls the {@link Row}s of one {@link Table} as delta against its {@link TableSyncState}:
+     * <ul>
+     *     <li>The request is conditional if the previous response <code>ETag</code> is known, an <code>HTTP 304</code> skips the {@link Table}</li>
+     *     <li>Locally known {@link Row}s with a {@link Row#getLastEditAt()} before the watermark are not written again</li>
+     *     <li>Deleting stale {@link Row}s is skipped if the hash of the pulled {@link Row}s did not change</li>
+     * </ul>
+     */
+    private void pullRemoteChanges(@NonNull TablesStreamingAPI api, @NonNull Table table, @NonNull SyncIdentityMap.TableIdentities identities) throws Exception {
+        final var tableRemoteId = table.getRemoteId();
+        if (tableRemoteId == null) {
+            throw new IllegalStateException("Expected table remote ID to be present when pushing row changes, but was null");
+        }
+
+        final var previousState = Optional.ofNullable(db.getTableSyncStateDao().get(table.getId())).orElseGet(TableSyncState::new);
+        final var nextState = new TableSyncState();
+        nextState.setTableId(table.getId());
+
+        final var writeQueue = new ChunkedWriteQueue<Row>(dbWriteExecutor, TRANSACTION_CHUNK_SIZE, MAX_PENDING_CHUNKS,
+                chunk -> db.runInTransaction(() -> persistRows(table, chunk, identities)));
+        final var pulledRows = new PulledRows(table, previousState, nextState, identities, writeQueue);
+        final var notModified = new boolean[]{false};
+
+        try {
+            createPager().fetchAll((limit, offset) -> {
+                Log.v(TAG, "------ Pulling remote rows for " + table.getTitle() + " (offset: " + offset + ", limit: " + limit + ")");
                 try {
-                    final var fetchedRows = new HashSet<Row>();
-                    int offset = 0;
-
-                    fetchRowsLoop:
-                    while (true) {
-                        Log.v(TAG, "------ Pulling remote rows for " + table.getTitle() + " (offset: " + offset + ")");
-                        final var tableRemoteId = table.getRemoteId();
-                        if (tableRemoteId == null) {
-                            throw new IllegalStateException("Expected table remote ID to be present when pushing row changes, but was null");
-                        }
+                    return api.getRows(tableRemoteId, limit, offset, offset == 0 ? previousState.getRowsETag() : null, pulledRows::accept);
+                } catch (NextcloudHttpRequestFailedException e) {
+                    serverErrorHandler.handle(e, "Could not fetch rows for table with remote ID " + tableRemoteId);
+                    throw e;
+                }
+            }, (page, offset, limit) -> {
+                if (page.isNotModified()) {
+                    notModified[0] = true;
+                    return 0;
+                }
+
+                final var size = page.getSize();
+                if (offset == 0 && size < limit) {
+                    // An ETag of the first page does only reflect all rows if there is no further page
+                    nextState.setRowsETag(page.getETag());
+                }
+                return size;
+            });
+        } finally {
+            pulledRows.close();
+        }
 
-                        final var request = api.getRows(tableRemoteId, TablesAPI.DEFAULT_API_LIMIT_ROWS, offset);
-                        final var response = request.execute();
-                        //noinspection SwitchStatementWithTooFewBranches
-                        switch (response.code()) {
-                            case 200: {
-                                final var rows = response.body();
-                                if (rows == null) {
-                                    throw new RuntimeException("Response body is null");
-                                }
+        if (notModified[0]) {
+            Log.v(TAG, "------ Rows of " + table.getTitle() + " have not been modified");
+            return;
+        }
 
-                                for (final var row : rows) {
-                                    row.setAccountId(table.getAccountId());
-                                    row.setTableId(table.getId());
-                                    row.setETag(response.headers().get(HEADER_ETAG));
-                                }
+        writeQueue.flush();
+        Log.i(TAG, "------ ← Skipped " + pulledRows.skippedRows + " unchanged rows of " + table.getTitle());
 
-                                fetchedRows.addAll(rows);
+        nextState.setRowsHash(pulledRows.rowsHash);
+        if (nextState.getRowsWatermark() == null) {
+            nextState.setRowsWatermark(previousState.getRowsWatermark());
+        }
 
-                                if (rows.size() != TablesAPI.DEFAULT_API_LIMIT_ROWS) {
-                                    break fetchRowsLoop;
-                                }
+        final var unchanged = Objects.equals(previousState.getRowsHash(), nextState.getRowsHash());
+        db.runInTransaction(() -> {
+            if (unchanged) {
+                Log.v(TAG, "------ Row hash of " + table.getTitle() + " did not change, skip deleting stale rows");
+            } else {
+                final var deletedRows = db.getReconciliationDao().deleteStaleRows(table.getId(), pulledRows.fetchedRowRemoteIds);
+                Log.i(TAG, "------ ← Deleted " + deletedRows + " rows of " + table.getTitle() + " which have not been fetched");
+                if (deletedRows > 0) {
+                    identities.invalidateRows();
+                }
+            }
 
-                                offset += rows.size();
+            db.getTableSyncStateDao().upsert(nextState);
+        });
+    }
 
-                                break;
-                            }
+    @NonNull
+    private PipelinedPager<TablesStreamingAPI.StreamedPage> createPager() {
+        return new PipelinedPager<>(networkExecutor, MAX_PAGES_IN_FLIGHT, MAX_ROWS_IN_FLIGHT, TablesAPI.DEFAULT_API_LIMIT_ROWS, MIN_PAGE_SIZE, MAX_PAGE_SIZE);
+    }
 
-                            default: {
-                                serverErrorHandler.handle(response, "Could not fetch rows for table with remote ID " + table.getRemoteId());
-                            }
-                        }
-                    }
+    /**
+     * @return <code>true</code> if the {@link Row} has not been edited since the watermark. Equal timestamps are considered as changed, because {@link Row#getLastEditAt()} only has a precision of seconds.
+     */
+    private static boolean isUnchangedSince(@NonNull Row row, @Nullable Instant watermark) {
+        final var lastEditAt = row.getLastEditAt();
+        return watermark != null && lastEditAt != null && lastEditAt.isBefore(watermark);
+    }
 
-                    final var fetchedRowRemoteIds = fetchedRows.stream().map(AbstractRemoteEntity::getRemoteId).collect(toUnmodifiableSet());
-                    final var rowIds = db.getRowDao().getRowRemoteAndLocalIds(table.getId());
+    /**
+     * Writes the given {@link Row}s and their {@link Data} using batched statements. Expected to be called inside a transaction.
+     *
+     * @param identities resolves remote IDs without querying them for each chunk and learns the IDs of inserted {@link Row}s and {@link Data}
+     */
+    private void persistRows(@NonNull Table table, @NonNull List<Row> rows, @NonNull SyncIdentityMap.TableIdentities identities) {
+        final var rowsToInsert = new ArrayList<Row>();
+        final var rowsToUpdate = new ArrayList<Row>();
+
+        for (final var row : rows) {
+            final var rowId = identities.getRowId(row.getRemoteId());
+            if (rowId == SyncIdentityMap.NO_ID) {
+                rowsToInsert.add(row);
+            } else {
+                row.setId(rowId);
+                rowsToUpdate.add(row);
+            }
+        }
 
-                    for (final var row : fetchedRows) {
-                        final var rowId = rowIds.get(row.getRemoteId());
-                        if (rowId == null) {
-                            Log.i(TAG, "------ ← Adding " + table.getTitle() + " to database");
-                            row.setId(db.getRowDao().insert(row));
-                        } else {
-                            row.setId(rowId);
-                            Log.i(TAG, "------ ← Updating row " + row.getRemoteId() + " in database");
-                            db.getRowDao().update(row);
-                        }
+        Log.i(TAG, "------ ← Adding " + rowsToInsert.size() + " and updating " + rowsToUpdate.size() + " rows of " + table.getTitle() + " in database");
+        final var insertedRowIds = db.getRowDao().insert(rowsToInsert);
+        for (int i = 0; i < insertedRowIds.length; i++) {
+            final var row = rowsToInsert.get(i);
+            row.setId(insertedRowIds[i]);
+            identities.putRow(row.getRemoteId(), row.getId());
+        }
+        db.getRowDao().update(rowsToUpdate);
 
-                        final var columnRemoteIds = Arrays.stream(row.getData()).map(Data::getRemoteColumnId).collect(toUnmodifiableSet());
-                        final var columnIds = db.getColumnDao().getColumnRemoteAndLocalIds(table.getAccountId(), columnRemoteIds);
-                        final var columns = db.getColumnDao().getColumns(columnIds.values());
-
-                        for (final var data : row.getData()) {
-                            final var columnId = columnIds.get(data.getRemoteColumnId());
-                            if (columnId == null) {
-                                Log.w(TAG, "------ Could not find remoteColumnId " + data.getRemoteColumnId() + ". Probably this column has been deleted but its data is still being responded by the server (See https://github.com/nextcloud/tables/issues/257)");
-                            } else {
-                                data.setAccountId(table.getAccountId());
-                                data.setRowId(row.getId());
-                                data.setColumnId(columnId);
-
-                                final var type = dataAdapter.getTypeForData(columns, data);
-                                data.setValue(dataAdapter.deserialize(type, data.getValue()));
-
-                                final var existingData = db.getDataDao().getDataForCoordinates(data.getColumnId(), data.getRowId());
-                                if (existingData == null) {
-                                    db.getDataDao().insert(data);
-                                } else {
-                                    data.setId(existingData.getId());
-                                    db.getDataDao().update(data);
-                                }
-
-                                // Data deletion is handled by database constraints
-                            }
-                        }
-                    }
+        final var schema = identities.getSchema();
+        identities.loadData(rowsToUpdate.stream().map(Row::getId).collect(toUnmodifiableSet()));
 
-                    Log.i(TAG, "------ ← Delete all rows except remoteId " + fetchedRowRemoteIds);
-                    final var existingRowIds = db.getRowDao().getRowRemoteAndLocalIds(table.getId());
+        final var dataToInsert = new ArrayList<Data>();
+        final var dataToUpdate = new ArrayList<Data>();
 
-                    for (final var remoteId : fetchedRowRemoteIds) {
-                        existingRowIds.remove(remoteId);
+        for (final var row : rows) {
+            for (final var data : row.getData()) {
+                final var remoteColumnId = data.getRemoteColumnId();
+                final var columnId = remoteColumnId == null ? SyncIdentityMap.NO_ID : identities.getColumnId(remoteColumnId);
+                if (columnId == SyncIdentityMap.NO_ID) {
+                    Log.w(TAG, "------ Could not find remoteColumnId " + remoteColumnId + ". Probably this column has been deleted but its data is still being responded by the server (See https://github.com/nextcloud/tables/issues/257)");
+                } else {
+                    data.setAccountId(table.getAccountId());
+                    data.setRowId(row.getId());
+                    data.setColumnId(columnId);
+
+                    final var type = schema.getTypeForData(data);
+                    data.setValue(dataAdapter.deserialize(type, data.getValue()));
+                    typedValueUtil.fill(type, data);
+
+                    final var existingDataId = identities.getDataId(row.getId(), columnId);
+                    if (existingDataId == SyncIdentityMap.NO_ID) {
+                        dataToInsert.add(data);
+                    } else {
+                        data.setId(existingDataId);
+                        dataToUpdate.add(data);
                     }
 
-                    for (final var id : new HashSet<>(existingRowIds.values())) {
-                        db.getRowDao().delete(id);
-                    }
-                } catch (Exception e) {
-                    exceptions.add(e);
-                } finally {
-                    latch.countDown();
+                    // Data deletion is handled by database constraints
                 }
-            });
+            }
         }
-        latch.await();
 
-        if (exceptions.size() > 0) {
-            // TODO we can only throw one exception, do we need a custom type with a list or is the user supposed to handle them one by one?
-            for (final var exception : exceptions) {
-                exception.printStackTrace();
+        final var insertedDataIds = db.getDataDao().insert(dataToInsert);
+        for (int i = 0; i < insertedDataIds.length; i++) {
+            final var data = dataToInsert.get(i);
+            identities.putData(data.getRowId(), data.getColumnId(), insertedDataIds[i]);
+        }
+        db.getDataDao().update(dataToUpdate);
+    }
+
+    /**
+     * Receives the streamed {@link Row}s of all pages in flight of one {@link Table} and hands the changed ones to the {@link ChunkedWriteQueue} right away.
+     * Pages are streamed concurrently, so all state is guarded by this instance.
+     */
+    private static class PulledRows {
+        @NonNull
+        private final Table table;
+        @NonNull
+        private final TableSyncState previousState;
+        @NonNull
+        private final TableSyncState nextState;
+        @NonNull
+        private final SyncIdentityMap.TableIdentities identities;
+        @NonNull
+        private final ChunkedWriteQueue<Row> writeQueue;
+        private final Set<Long> fetchedRowRemoteIds = new HashSet<>();
+        private long rowsHash = 0L;
+        private int skippedRows = 0;
+        private boolean closed = false;
+
+        private PulledRows(@NonNull Table table,
+                           @NonNull TableSyncState previousState,
+                           @NonNull TableSyncState nextState,
+                           @NonNull SyncIdentityMap.TableIdentities identities,
+                           @NonNull ChunkedWriteQueue<Row> writeQueue) {
+            this.table = table;
+            this.previousState = previousState;
+            this.nextState = nextState;
+            this.identities = identities;
+            this.writeQueue = writeQueue;
+        }
+
+        private synchronized void accept(@NonNull Row row, @Nullable String eTag) throws Exception {
+            if (closed) {
+                // Cancelled speculative pages must not add rows after the write queue has been flushed
+                throw new InterruptedException("Pulling rows of " + table.getTitle() + " has already been finished");
             }
-            throw exceptions.get(0);
+
+            if (!fetchedRowRemoteIds.add(row.getRemoteId())) {
+                return;
+            }
+
+            rowsHash += HASH_MULTIPLIER * Objects.hash(row.getRemoteId(), row.getLastEditAt());
+
+            final var lastEditAt = row.getLastEditAt();
+            if (lastEditAt != null && (nextState.getRowsWatermark() == null || lastEditAt.isAfter(nextState.getRowsWatermark()))) {
+                nextState.setRowsWatermark(lastEditAt);
+            }
+
+            if (isUnchangedSince(row, previousState.getRowsWatermark()) && identities.containsRow(row.getRemoteId())) {
+                skippedRows++;
+                return;
+            }
+
+            row.setETag(eTag);
+            row.setAccountId(table.getAccountId());
+            row.setTableId(table.getId());
+            writeQueue.add(row);
+        }
+
+        private synchronized void close() {
+            closed = true;
         }
     }
 }
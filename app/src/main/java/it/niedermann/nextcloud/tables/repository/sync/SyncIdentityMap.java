@@ -0,0 +1,250 @@
+package it.niedermann.nextcloud.tables.repository.sync;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import it.niedermann.nextcloud.tables.database.TablesDatabase;
+import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.model.TableSchema;
+import it.niedermann.nextcloud.tables.repository.util.LongLongMap;
+
+/**
+ * Remote ↔ local ID mappings of one synchronization of an {@link Account}, shared by pushing, pulling and reconciliation.
+ * Each mapping is loaded at most once per {@link Table} and updated when inserts assign new local IDs, instead of being queried again for each chunk of {@link Row}s.
+ * Thread safe, because the {@link Row}s of multiple {@link Table}s are pulled in parallel.
+ */
+public class SyncIdentityMap {
+
+    /**
+     * Returned if an ID is not known
+     */
+    public static final long NO_ID = LongLongMap.NO_VALUE;
+
+    private final TablesDatabase db;
+    private final long accountId;
+    private final Map<Long, TableIdentities> tables = new HashMap<>();
+    @Nullable
+    private LongLongMap tableIds;
+    @Nullable
+    private LongLongMap tableRemoteIds;
+
+    public SyncIdentityMap(@NonNull TablesDatabase db, @NonNull Account account) {
+        this.db = db;
+        this.accountId = account.getId();
+    }
+
+    /**
+     * @return {@link Table#getId()} or {@link #NO_ID}
+     */
+    public synchronized long getTableId(long remoteId) {
+        loadTables();
+        return tableIds.get(remoteId);
+    }
+
+    /**
+     * @return {@link Table#getRemoteId()} or {@link #NO_ID}
+     */
+    public synchronized long getTableRemoteId(long tableId) {
+        loadTables();
+        return tableRemoteIds.get(tableId);
+    }
+
+    public synchronized void putTable(long remoteId, long tableId) {
+        loadTables();
+        tableIds.put(remoteId, tableId);
+        tableRemoteIds.put(tableId, remoteId);
+    }
+
+    /**
+     * Must be called after {@link Table}s have been deleted
+     */
+    public synchronized void invalidateTables() {
+        tableIds = null;
+        tableRemoteIds = null;
+        tables.clear();
+    }
+
+    @NonNull
+    public synchronized TableIdentities getTable(@NonNull Table table) {
+        return tables.computeIfAbsent(table.getId(), tableId -> new TableIdentities(db, tableId));
+    }
+
+    private void loadTables() {
+        if (tableIds == null || tableRemoteIds == null) {
+            final var localAndRemoteIds = db.getTableDao().getTableLocalAndRemoteIds(accountId);
+            tableRemoteIds = new LongLongMap(localAndRemoteIds);
+            tableIds = new LongLongMap(localAndRemoteIds.size());
+            for (final var entry : localAndRemoteIds.entrySet()) {
+                tableIds.put(entry.getValue(), entry.getKey());
+            }
+        }
+    }
+
+    /**
+     * Mappings of the {@link Column}s, {@link Row}s and {@link Data} of one {@link Table}
+     */
+    public static class TableIdentities {
+
+        private final TablesDatabase db;
+        private final long tableId;
+        @Nullable
+        private LongLongMap columnIds;
+        @Nullable
+        private TableSchema schema;
+        /**
+         * key: {@link Column#getId()}, value: position within {@link #schema}
+         */
+        @Nullable
+        private LongLongMap columnPositions;
+        @Nullable
+        private LongLongMap rowIds;
+        /**
+         * key: {@link Row#getId()} of which the {@link Data} has been loaded to {@link #dataIds}
+         */
+        private final LongLongMap loadedRows = new LongLongMap();
+        /**
+         * key: see {@link #coordinates(long, long)}, value: {@link Data#getId()}
+         */
+        private final LongLongMap dataIds = new LongLongMap();
+
+        private TableIdentities(@NonNull TablesDatabase db, long tableId) {
+            this.db = db;
+            this.tableId = tableId;
+        }
+
+        /**
+         * @return {@link Column#getId()} or {@link #NO_ID}
+         */
+        public synchronized long getColumnId(long remoteId) {
+            loadColumns();
+            return columnIds.get(remoteId);
+        }
+
+        /**
+         * Must be called after {@link Column}s have been added or deleted, because this changes the {@link #getSchema()}
+         */
+        public synchronized void invalidateColumns() {
+            columnIds = null;
+            schema = null;
+            columnPositions = null;
+            loadedRows.clear();
+            dataIds.clear();
+        }
+
+        /**
+         * @return all {@link Column}s including locally deleted ones
+         */
+        @NonNull
+        public synchronized TableSchema getSchema() {
+            loadColumns();
+            return schema;
+        }
+
+        /**
+         * @return {@link Row#getId()} or {@link #NO_ID}
+         */
+        public synchronized long getRowId(long remoteId) {
+            loadRows();
+            return rowIds.get(remoteId);
+        }
+
+        public synchronized boolean containsRow(long remoteId) {
+            return getRowId(remoteId) != NO_ID;
+        }
+
+        /**
+         * Remembers a newly inserted {@link Row}, which does not have any {@link Data} yet
+         */
+        public synchronized void putRow(long remoteId, long rowId) {
+            loadRows();
+            rowIds.put(remoteId, rowId);
+            loadedRows.put(rowId, rowId);
+        }
+
+        /**
+         * Must be called after {@link Row}s have been deleted
+         */
+        public synchronized void invalidateRows() {
+            rowIds = null;
+            loadedRows.clear();
+            dataIds.clear();
+        }
+
+        /**
+         * Loads the {@link Data} IDs of all given {@link Row}s which are not known yet with one query
+         */
+        public synchronized void loadData(@NonNull Collection<Long> rowIds) {
+            loadColumns();
+            final var missingRowIds = new ArrayList<Long>(rowIds.size());
+            for (final var rowId : rowIds) {
+                if (!loadedRows.containsKey(rowId)) {
+                    missingRowIds.add(rowId);
+                    loadedRows.put(rowId, rowId);
+                }
+            }
+
+            if (!missingRowIds.isEmpty()) {
+                for (final var coordinates : db.getDataDao().getDataCoordinatesForRows(missingRowIds)) {
+                    putData(coordinates.getRowId(), coordinates.getColumnId(), coordinates.getId());
+                }
+            }
+        }
+
+        /**
+         * Expects {@link #loadData(Collection)} to be called before for the given {@link Row}.
+         *
+         * @return {@link Data#getId()} or {@link #NO_ID}
+         */
+        public synchronized long getDataId(long rowId, long columnId) {
+            final var coordinates = coordinates(rowId, columnId);
+            return coordinates == NO_ID ? NO_ID : dataIds.get(coordinates);
+        }
+
+        public synchronized void putData(long rowId, long columnId, long dataId) {
+            final var coordinates = coordinates(rowId, columnId);
+            if (coordinates != NO_ID) {
+                dataIds.put(coordinates, dataId);
+            }
+        }
+
+        /**
+         * Packs the coordinates into one key, because the position of a {@link Column} is smaller than the amount of {@link Column}s.
+         *
+         * @return {@link #NO_ID} if the {@link Column} is not known
+         */
+        private long coordinates(long rowId, long columnId) {
+            loadColumns();
+            final var position = columnPositions.get(columnId);
+            return position == NO_ID ? NO_ID : rowId * schema.getColumnCount() + position;
+        }
+
+        private void loadColumns() {
+            if (columnIds == null || schema == null || columnPositions == null) {
+                final var remoteAndLocalIds = db.getColumnDao().getColumnRemoteAndLocalIds(tableId);
+                columnIds = new LongLongMap(remoteAndLocalIds);
+                final var columns = db.getColumnDao().getColumns(remoteAndLocalIds.values());
+                schema = new TableSchema(columns);
+                columnPositions = new LongLongMap(columns.size());
+                final var schemaColumns = schema.getColumns();
+                for (int position = 0; position < schemaColumns.size(); position++) {
+                    columnPositions.put(schemaColumns.get(position).getId(), position);
+                }
+            }
+        }
+
+        private void loadRows() {
+            if (rowIds == null) {
+                rowIds = new LongLongMap(db.getRowDao().getRowRemoteAndLocalIds(tableId));
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package it.niedermann.nextcloud.tables.repository.sync;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import it.niedermann.nextcloud.tables.database.entity.Account;
+
+/**
+ * App wide executors for synchronization, shared by all callers no matter how many repositories or sync adapters they create.
+ * <ul>
+ *     <li>Synchronizations of different {@link Account}s run in parallel, a second request for an {@link Account} which is already being synchronized joins the running one</li>
+ *     <li>Work per table fans out to a pool which is bounded to the amount of available cores</li>
+ *     <li>Page requests run on a separate pool, so table workers can keep multiple requests in flight without starving each other</li>
+ *     <li>Bulk database writes are serialized on one thread, since SQLite only supports one writer anyway</li>
+ * </ul>
+ */
+public class SyncScheduler {
+
+    private static final String TAG = SyncScheduler.class.getSimpleName();
+    private static final long KEEP_ALIVE_SECONDS = 30L;
+    /**
+     * Global limit of {@link Account}s being synchronized at the same time, independent of the available cores because most of the time is spent waiting for the servers
+     */
+    private static final int MAX_PARALLEL_ACCOUNTS = 4;
+    /**
+     * Global limit of requests which are in flight at the same time
+     */
+    private static final int MAX_PARALLEL_REQUESTS = 8;
+    private static volatile SyncScheduler instance;
+
+    private final ThreadPoolExecutor accountExecutor;
+    private final ThreadPoolExecutor tableExecutor;
+    private final ThreadPoolExecutor networkExecutor;
+    private final ThreadPoolExecutor dbWriteExecutor;
+    private final Map<Long, CompletableFuture<Void>> runningSynchronizations = new ConcurrentHashMap<>();
+
+    public static SyncScheduler getInstance() {
+        if (instance == null) {
+            synchronized (SyncScheduler.class) {
+                if (instance == null) {
+                    instance = new SyncScheduler(Runtime.getRuntime().availableProcessors());
+                }
+            }
+        }
+        return instance;
+    }
+
+    private SyncScheduler(int parallelism) {
+        this.accountExecutor = createExecutor("sync-account", MAX_PARALLEL_ACCOUNTS);
+        this.tableExecutor = createExecutor("sync-table", parallelism);
+        this.networkExecutor = createExecutor("sync-network", MAX_PARALLEL_REQUESTS);
+        this.dbWriteExecutor = createExecutor("sync-db-write", 1);
+    }
+
+    @NonNull
+    private static ThreadPoolExecutor createExecutor(@NonNull String name, int threads) {
+        final var executor = new ThreadPoolExecutor(threads, threads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), new NamedThreadFactory(name));
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Runs the given synchronization for the given {@link Account} unless there is already one running for it.
+     *
+     * @return the {@link CompletableFuture} of the running synchronization for this {@link Account}
+     */
+    @NonNull
+    public CompletableFuture<Void> synchronize(@NonNull Account account, @NonNull Synchronization synchronization) {
+        final var future = new CompletableFuture<Void>();
+        final var runningSynchronization = runningSynchronizations.putIfAbsent(account.getId(), future);
+        if (runningSynchronization != null) {
+            Log.v(TAG, "Synchronization for " + account.getAccountName() + " is already running");
+            return runningSynchronization;
+        }
+
+        execute(account, future, synchronization);
+        return future;
+    }
+
+    /**
+     * Runs the given synchronization for the given {@link Account} on its own. If there is already one running for it, the given one runs after it has completed,
+     * because the running one might already be past the point where it would have covered the work of the given one.
+     *
+     * @return the {@link CompletableFuture} of the given synchronization
+     */
+    @NonNull
+    public CompletableFuture<Void> synchronizeAfterRunning(@NonNull Account account, @NonNull Synchronization synchronization) {
+        final var future = new CompletableFuture<Void>();
+        final var runningSynchronization = runningSynchronizations.putIfAbsent(account.getId(), future);
+        if (runningSynchronization != null) {
+            Log.v(TAG, "Synchronization for " + account.getAccountName() + " is already running, waiting for it to complete");
+            return runningSynchronization
+                    .handle((result, throwable) -> null)
+                    .thenCompose(ignored -> synchronizeAfterRunning(account, synchronization));
+        }
+
+        execute(account, future, synchronization);
+        return future;
+    }
+
+    private void execute(@NonNull Account account, @NonNull CompletableFuture<Void> future, @NonNull Synchronization synchronization) {
+        Log.v(TAG, "Scheduling synchronization for " + account.getAccountName() + " (" + getMetrics() + ")");
+        try {
+            accountExecutor.execute(() -> {
+                try {
+                    synchronization.run();
+                    runningSynchronizations.remove(account.getId(), future);
+                    future.complete(null);
+                } catch (Throwable t) {
+                    runningSynchronizations.remove(account.getId(), future);
+                    future.completeExceptionally(new CompletionException(t));
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            runningSynchronizations.remove(account.getId(), future);
+            future.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Executor for work per table. Tasks must not wait for other tasks of this executor.
+     */
+    @NonNull
+    public ExecutorService getTableExecutor() {
+        return tableExecutor;
+    }
+
+    /**
+     * Executor for single requests. Tasks must not wait for other tasks.
+     */
+    @NonNull
+    public ExecutorService getNetworkExecutor() {
+        return networkExecutor;
+    }
+
+    @NonNull
+    public ExecutorService getDbWriteExecutor() {
+        return dbWriteExecutor;
+    }
+
+    @NonNull
+    public Metrics getMetrics() {
+        return new Metrics(
+                runningSynchronizations.size(),
+                tableExecutor.getActiveCount(),
+                tableExecutor.getQueue().size(),
+                networkExecutor.getActiveCount(),
+                dbWriteExecutor.getQueue().size()
+        );
+    }
+
+    public interface Synchronization {
+        void run() throws Exception;
+    }
+
+    public static class Metrics {
+
+        private final int runningAccounts;
+        private final int activeTableWorkers;
+        private final int queuedTableTasks;
+        private final int activeRequests;
+        private final int queuedDbWrites;
+
+        private Metrics(int runningAccounts, int activeTableWorkers, int queuedTableTasks, int activeRequests, int queuedDbWrites) {
+            this.runningAccounts = runningAccounts;
+            this.activeTableWorkers = activeTableWorkers;
+            this.queuedTableTasks = queuedTableTasks;
+            this.activeRequests = activeRequests;
+            this.queuedDbWrites = queuedDbWrites;
+        }
+
+        public int getRunningAccounts() {
+            return runningAccounts;
+        }
+
+        public int getActiveTableWorkers() {
+            return activeTableWorkers;
+        }
+
+        public int getQueuedTableTasks() {
+            return queuedTableTasks;
+        }
+
+        public int getActiveRequests() {
+            return activeRequests;
+        }
+
+        public int getQueuedDbWrites() {
+            return queuedDbWrites;
+        }
+
+        @NonNull
+        @Override
+        public String toString() {
+            return "accounts: " + runningAccounts +
+                    ", active table workers: " + activeTableWorkers +
+                    ", queued table tasks: " + queuedTableTasks +
+                    ", active requests: " + activeRequests +
+                    ", queued db writes: " + queuedDbWrites;
+        }
+    }
+
+    private static class NamedThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+        private final AtomicInteger count = new AtomicInteger();
+        private final String name;
+
+        private NamedThreadFactory(@NonNull String name) {
+            this.name = name;
+        }
+
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+            final var thread = delegate.newThread(runnable);
+            thread.setName(name + "-" + count.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -8,12 +8,14 @@ import android.util.Log;
 import androidx.annotation.NonNull;
 
 import java.util.HashSet;
+import java.util.List;
 
 import it.niedermann.nextcloud.tables.database.DBStatus;
 import it.niedermann.nextcloud.tables.database.TablesDatabase;
 import it.niedermann.nextcloud.tables.database.entity.AbstractRemoteEntity;
 import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.remote.ApiProvider;
 import it.niedermann.nextcloud.tables.remote.api.TablesAPI;
 
 
@@ -21,12 +23,24 @@ public class TableSyncAdapter extends AbstractSyncAdapter {
 
     private static final String TAG = TableSyncAdapter.class.getSimpleName();
 
+    private static final int MAX_PAGES_IN_FLIGHT = 2;
+    private static final int MIN_PAGE_SIZE = 100;
+    private final PipelinedPager<List<Table>> pager;
+
     public TableSyncAdapter(@NonNull TablesDatabase db, @NonNull Context context) {
+        this(db, context, new PipelinedPager<>(SyncScheduler.getInstance().getNetworkExecutor(), MAX_PAGES_IN_FLIGHT, TablesAPI.DEFAULT_API_LIMIT_TABLES, MIN_PAGE_SIZE, TablesAPI.DEFAULT_API_LIMIT_TABLES));
+    }
+
+    private TableSyncAdapter(@NonNull TablesDatabase db,
+                             @NonNull Context context,
+                             @NonNull PipelinedPager<List<Table>> pager) {
         super(db, context);
+        this.pager = pager;
     }
 
     @Override
-    public void pushLocalChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pushLocalChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getApi();
         Log.v(TAG, "Pushing local changes for " + account.getAccountName());
         final var deletedTables = db.getTableDao().getTables(account.getId(), DBStatus.LOCAL_DELETED);
         for (final var table : deletedTables) {
@@ -61,6 +75,7 @@ public class TableSyncAdapter extends AbstractSyncAdapter {
 
                 table.setRemoteId(body.getRemoteId());
                 db.getTableDao().update(table);
+                identityMap.putTable(table.getRemoteId(), table.getId());
             } else {
                 serverErrorHandler.handle(response, "Could not push local changes for table " + table.getTitle());
             }
@@ -68,15 +83,13 @@ public class TableSyncAdapter extends AbstractSyncAdapter {
     }
 
     @Override
-    public void pullRemoteChanges(@NonNull TablesAPI api, @NonNull Account account) throws Exception {
+    public void pullRemoteChanges(@NonNull ApiProvider<TablesAPI> apiProvider, @NonNull Account account, @NonNull SyncIdentityMap identityMap) throws Exception {
+        final var api = apiProvider.getApi();
         final var fetchedTables = new HashSet<Table>();
-        int offset = 0;
 
-        fetchTablesLoop:
-        while (true) {
-            Log.v(TAG, "Pulling remote changes for " + account.getAccountName() + " (offset: " + offset + ")");
-            final var request = api.getTables(TablesAPI.DEFAULT_API_LIMIT_TABLES, offset);
-            final var response = request.execute();
+        pager.fetchAll((limit, offset) -> {
+            Log.v(TAG, "Pulling remote changes for " + account.getAccountName() + " (offset: " + offset + ", limit: " + limit + ")");
+            final var response = api.getTables(limit, offset).execute();
             //noinspection SwitchStatementWithTooFewBranches
             switch (response.code()) {
                 case 200: {
@@ -91,41 +104,42 @@ public class TableSyncAdapter extends AbstractSyncAdapter {
                         table.setETag(response.headers().get(HEADER_ETAG));
                     }
 
-                    fetchedTables.addAll(tables);
-
-                    if (tables.size() != TablesAPI.DEFAULT_API_LIMIT_TABLES) {
-                        break fetchTablesLoop;
-                    }
-
-                    offset += tables.size();
-
-                    break;
+                    return tables;
                 }
 
                 default: {
                     serverErrorHandler.handle(response);
+                    throw new IllegalStateException("Unexpected HTTP " + response.code() + " while fetching tables");
                 }
             }
-        }
+        }, (tables, offset, limit) -> {
+            fetchedTables.addAll(tables);
+            return tables.size();
+        });
 
         final var tableRemoteIds = fetchedTables.stream().map(AbstractRemoteEntity::getRemoteId).collect(toUnmodifiableSet());
-        final var tableIds = db.getTableDao().getTableRemoteAndLocalIds(account.getId(), tableRemoteIds);
-        for (final var table : fetchedTables) {
-            final var tableId = tableIds.get(table.getRemoteId());
-            if (tableId == null) {
-                Log.i(TAG, "← Adding " + table.getTitle() + " to database");
-                table.setId(db.getTableDao().insert(table));
-            } else {
-                table.setId(tableId);
-                Log.i(TAG, "← Updating " + table.getTitle() + " in database");
-                db.getTableDao().update(table);
-                if (!table.hasReadPermission()) {
-                    db.getRowDao().deleteAllFromTable(table.getId());
+        db.runInTransaction(() -> {
+            for (final var table : fetchedTables) {
+                final var tableId = identityMap.getTableId(table.getRemoteId());
+                if (tableId == SyncIdentityMap.NO_ID) {
+                    Log.i(TAG, "← Adding " + table.getTitle() + " to database");
+                    table.setId(db.getTableDao().insert(table));
+                    identityMap.putTable(table.getRemoteId(), table.getId());
+                } else {
+                    table.setId(tableId);
+                    Log.i(TAG, "← Updating " + table.getTitle() + " in database");
+                    db.getTableDao().update(table);
+                    if (!table.hasReadPermission()) {
+                        db.getRowDao().deleteAllFromTable(table.getId());
+                    }
                 }
             }
-        }
 
-        Log.i(TAG, "← Delete all tables except remoteId " + tableRemoteIds);
-        db.getTableDao().deleteExcept(account.getId(), tableRemoteIds);
+            final var deletedTables = db.getReconciliationDao().deleteStaleTables(account.getId(), tableRemoteIds);
+            Log.i(TAG, "← Deleted " + deletedTables + " tables which have not been fetched");
+            if (deletedTables > 0) {
+                identityMap.invalidateTables();
+            }
+        });
     }
 }
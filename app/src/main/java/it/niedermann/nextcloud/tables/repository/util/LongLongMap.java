@@ -0,0 +1,129 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import androidx.annotation.NonNull;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Open addressing hash map from <code>long</code> to <code>long</code>, which avoids boxing each key and value of large ID mappings.
+ * Not thread safe.
+ */
+public class LongLongMap {
+
+    /**
+     * Returned by {@link #get(long)} if there is no value for a key
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private boolean[] used;
+    private int size = 0;
+
+    public LongLongMap() {
+        this(MIN_CAPACITY / 2);
+    }
+
+    public LongLongMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public LongLongMap(@NonNull Map<Long, Long> map) {
+        this(map.size());
+        for (final var entry : map.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+        }
+    }
+
+    /**
+     * @return the value for the given key or {@link #NO_VALUE}
+     */
+    public long get(long key) {
+        final var mask = keys.length - 1;
+        for (int i = index(key, mask); used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return NO_VALUE;
+    }
+
+    public boolean containsKey(long key) {
+        return get(key) != NO_VALUE;
+    }
+
+    /**
+     * @param value must not be {@link #NO_VALUE}
+     */
+    public void put(long key, long value) {
+        if (value == NO_VALUE) {
+            throw new IllegalArgumentException("Value must not be " + NO_VALUE);
+        }
+
+        final var mask = keys.length - 1;
+        int i = index(key, mask);
+        while (used[i]) {
+            if (keys[i] == key) {
+                values[i] = value;
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+        size++;
+
+        if (size * 2 > keys.length) {
+            grow();
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+
+    private void grow() {
+        final var oldKeys = keys;
+        final var oldValues = values;
+        final var oldUsed = used;
+
+        allocate(keys.length * 2);
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        used = new boolean[capacity];
+    }
+
+    /**
+     * @return a power of two which keeps the load factor of the expected size at most <code>0.5</code>
+     */
+    private static int capacityFor(int expectedSize) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+    }
+
+    private static int index(long key, int mask) {
+        final var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,78 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.Pattern;
+
+import it.niedermann.nextcloud.tables.database.dao.DataSearchDao;
+import it.niedermann.nextcloud.tables.database.entity.DataSearch;
+import it.niedermann.nextcloud.tables.model.SearchResult;
+
+public class SearchQueryUtil {
+
+    /**
+     * Same separators as the <code>unicode61</code> tokenizer of {@link DataSearch}
+     */
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    /**
+     * Converts user input into a full text query which matches all terms as prefix.
+     * Characters with a special meaning in full text queries are treated as separators.
+     *
+     * @return <code>null</code> if the input does not contain any searchable term
+     */
+    @Nullable
+    public String toMatchQuery(@Nullable String input) {
+        if (input == null) {
+            return null;
+        }
+
+        final var query = new StringBuilder();
+        for (final var term : SEPARATORS.split(input)) {
+            if (!term.isEmpty()) {
+                if (query.length() > 0) {
+                    query.append(' ');
+                }
+                query.append(term).append('*');
+            }
+        }
+
+        return query.length() == 0 ? null : query.toString();
+    }
+
+    /**
+     * Sorts the given {@link SearchResult}s by relevance, keeping the order of equally relevant ones.
+     */
+    public void rank(@NonNull List<SearchResult> results) {
+        results.sort(Comparator.comparingDouble((SearchResult result) -> score(result.getMatchInfo())).reversed());
+    }
+
+    /**
+     * Sums up the hits of each phrase in each column, weighted by how rare the phrase is across all rows, like the rank function of the SQLite FTS documentation.
+     *
+     * @param matchInfo <code>matchinfo</code> in the {@link DataSearchDao#MATCH_INFO_FORMAT}
+     */
+    double score(@Nullable byte[] matchInfo) {
+        if (matchInfo == null || matchInfo.length < 2 * Integer.BYTES) {
+            return 0;
+        }
+
+        final var values = ByteBuffer.wrap(matchInfo).order(ByteOrder.nativeOrder()).asIntBuffer();
+        final var phrases = values.get(0);
+        final var columns = values.get(1);
+        double score = 0;
+        for (int i = 0; i < phrases * columns && 2 + 3 * i + 1 < values.limit(); i++) {
+            final var hitsInRow = values.get(2 + 3 * i);
+            final var hitsInAllRows = values.get(2 + 3 * i + 1);
+            if (hitsInRow > 0 && hitsInAllRows > 0) {
+                score += (double) hitsInRow / hitsInAllRows;
+            }
+        }
+        return score;
+    }
+}
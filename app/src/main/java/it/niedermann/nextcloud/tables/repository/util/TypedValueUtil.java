@@ -0,0 +1,89 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.model.EDataType;
+
+/**
+ * Derives the typed columns of {@link Data} from its {@link Data#getValue()}, so they can be sorted, filtered and aggregated in SQL.
+ */
+public class TypedValueUtil {
+
+    private static final String TAG = TypedValueUtil.class.getSimpleName();
+    private static final int SORT_KEY_MAX_LENGTH = 64;
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+
+    /**
+     * Expects the {@link Data#getValue()} to be deserialized already.
+     */
+    public void fill(@NonNull EDataType type, @NonNull Data data) {
+        data.setNumberValue(null);
+        data.setInstantValue(null);
+        data.setSortKey(null);
+
+        final var value = data.getValue();
+        if (value == null || value.isEmpty()) {
+            return;
+        }
+
+        try {
+            switch (type) {
+                case NUMBER:
+                case NUMBER_PROGRESS:
+                case NUMBER_STARS:
+                    data.setNumberValue(Double.parseDouble(value));
+                    break;
+                case DATETIME:
+                case DATETIME_DATETIME:
+                    // Values do not carry a time zone, UTC keeps their order
+                    data.setInstantValue(LocalDateTime.parse(value, DateTimeFormatter.ISO_DATE_TIME).toInstant(ZoneOffset.UTC).toEpochMilli());
+                    break;
+                case DATETIME_DATE:
+                    data.setInstantValue(LocalDate.parse(value, DateTimeFormatter.ISO_DATE).atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli());
+                    break;
+                case DATETIME_TIME:
+                    data.setInstantValue(LocalTime.parse(value, DateTimeFormatter.ISO_TIME).toNanoOfDay() / 1_000_000);
+                    break;
+                case TEXT:
+                case TEXT_LINE:
+                case TEXT_LONG:
+                case TEXT_RICH:
+                case TEXT_LINK:
+                    data.setSortKey(toSortKey(value));
+                    break;
+                default:
+                    break;
+            }
+        } catch (NumberFormatException | DateTimeParseException e) {
+            Log.w(TAG, "Could not derive typed value of " + type + ": " + value);
+        }
+    }
+
+    /**
+     * @return case and accent insensitive prefix of the given value
+     */
+    @NonNull
+    public String toSortKey(@NonNull String value) {
+        final var normalized = COMBINING_MARKS
+                .matcher(Normalizer.normalize(value, Normalizer.Form.NFKD))
+                .replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .trim();
+        return normalized.length() > SORT_KEY_MAX_LENGTH
+                ? normalized.substring(0, SORT_KEY_MAX_LENGTH)
+                : normalized;
+    }
+}
@@ -7,6 +7,7 @@ import android.os.Bundle;
 import android.util.Log;
 import android.view.Menu;
 import android.view.MenuItem;
+import android.view.View;
 import android.widget.Toast;
 
 import androidx.annotation.NonNull;
@@ -18,6 +19,7 @@ import androidx.appcompat.widget.PopupMenu;
 import androidx.core.content.ContextCompat;
 import androidx.core.splashscreen.SplashScreen;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.bumptech.glide.Glide;
 import com.bumptech.glide.request.RequestOptions;
@@ -33,21 +35,29 @@ import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
 import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.database.entity.Table;
 import it.niedermann.nextcloud.tables.databinding.ActivityMainBinding;
+import it.niedermann.nextcloud.tables.model.SearchResult;
 import it.niedermann.nextcloud.tables.ui.about.AboutActivity;
 import it.niedermann.nextcloud.tables.ui.accountswitcher.AccountSwitcherDialog;
 import it.niedermann.nextcloud.tables.ui.column.manage.ManageColumnsActivity;
 import it.niedermann.nextcloud.tables.ui.exception.ExceptionDialogFragment;
 import it.niedermann.nextcloud.tables.ui.exception.ExceptionHandler;
 import it.niedermann.nextcloud.tables.ui.importaccount.ImportAccountActivity;
+import it.niedermann.nextcloud.tables.ui.row.EditRowActivity;
+import it.niedermann.nextcloud.tables.ui.row.OnTextChangedListener;
 import it.niedermann.nextcloud.tables.ui.settings.PreferencesActivity;
 import it.niedermann.nextcloud.tables.ui.table.edit.EditTableActivity;
 import it.niedermann.nextcloud.tables.ui.util.EmojiDrawable;
+import it.niedermann.nextcloud.tables.ui.util.SpannableUtil;
 
 public class MainActivity extends AppCompatActivity {
 
     private static final String TAG = MainActivity.class.getSimpleName();
     private ActivityMainBinding binding;
     private MainViewModel mainViewModel;
+    @Nullable
+    private Account currentAccount;
+    @Nullable
+    private Table currentTable;
 
     @Override
     protected void onCreate(Bundle savedInstanceState) {
@@ -69,6 +79,7 @@ public class MainActivity extends AppCompatActivity {
         mainViewModel = new ViewModelProvider(this).get(MainViewModel.class);
 
         mainViewModel.getCurrentAccount().observe(this, account -> {
+            currentAccount = account;
             if (account == null) {
                 startActivity(ImportAccountActivity.createIntent(MainActivity.this));
             } else {
@@ -99,12 +110,27 @@ public class MainActivity extends AppCompatActivity {
 
         binding.toolbar.setOnClickListener(view -> {
             if (FeatureToggle.SEARCH_IN_TABLE.enabled) {
-                throw new UnsupportedOperationException();
+                binding.searchView.show();
             } else {
                 Toast.makeText(this, R.string.not_implemented, Toast.LENGTH_SHORT).show();
             }
         });
 
+        final var searchResultAdapter = new SearchResultAdapter(this::openSearchResult);
+        binding.searchResults.setAdapter(searchResultAdapter);
+        binding.searchResults.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                if (!recyclerView.canScrollVertically(1)) {
+                    mainViewModel.loadMoreSearchResults();
+                }
+            }
+        });
+        binding.searchView.getEditText().addTextChangedListener((OnTextChangedListener) (s, start, before, count) -> search());
+        binding.searchInCurrentTable.setOnCheckedChangeListener((buttonView, isChecked) -> search());
+        mainViewModel.getSearchResults().observe(this, searchResultAdapter::setSearchResults);
+
         final var connectivityManager = (ConnectivityManager) getSystemService(ConnectivityManager.class);
         final var networkCallbackReference = new AtomicReference<ConnectivityManager.NetworkCallback>();
         mainViewModel.getAccountAndNetworkRequest().observe(this, accountAndNetworkRequest -> {
@@ -127,7 +153,39 @@ public class MainActivity extends AppCompatActivity {
         });
     }
 
+    private void search() {
+        if (currentAccount == null) {
+            return;
+        }
+
+        final var table = binding.searchInCurrentTable.isChecked() ? currentTable : null;
+        mainViewModel.search(currentAccount, table, binding.searchView.getText().toString());
+    }
+
+    private void openSearchResult(@NonNull SearchResult searchResult) {
+        final var account = currentAccount;
+        if (account == null) {
+            return;
+        }
+
+        mainViewModel.openSearchResult(account, searchResult).whenCompleteAsync((tableAndRow, exception) -> {
+            if (exception != null) {
+                ExceptionDialogFragment.newInstance(exception, account).show(getSupportFragmentManager(), ExceptionDialogFragment.class.getSimpleName());
+                return;
+            }
+
+            binding.searchView.hide();
+            final var table = tableAndRow.first;
+            final var row = tableAndRow.second;
+            if (table != null && row != null && table.hasUpdatePermission()) {
+                startActivity(EditRowActivity.createIntent(this, account, table, row));
+            }
+        }, ContextCompat.getMainExecutor(this));
+    }
+
     private void applyCurrentTable(@Nullable Table table) {
+        currentTable = table;
+        binding.searchInCurrentTable.setVisibility(table == null ? View.GONE : View.VISIBLE);
         binding.toolbar.setHint(table == null
                 ? getString(R.string.choose_table_from_the_sidebar)
                 : table.getTitleWithEmoji());
@@ -142,8 +200,8 @@ public class MainActivity extends AppCompatActivity {
             return;
         }
 
-        addMenuGroup(menu, tables.getAccount(), getString(R.string.navigation_my_tables), tables.getOwnTables());
-        addMenuGroup(menu, tables.getAccount(), getString(R.string.navigation_shared_tables), tables.getSharedTables());
+        addMenuGroup(menu, tables, getString(R.string.navigation_my_tables), tables.getOwnTables());
+        addMenuGroup(menu, tables, getString(R.string.navigation_shared_tables), tables.getSharedTables());
 
         menu.add(Menu.NONE, EMenuItem.ADD_TABLE.id, Menu.NONE, R.string.add_table)
                 .setIcon(R.drawable.ic_baseline_add_24)
@@ -165,7 +223,8 @@ public class MainActivity extends AppCompatActivity {
                 });
     }
 
-    private void addMenuGroup(@NonNull Menu menu, @NonNull Account account, @NonNull String groupName, @NonNull List<Table> tables) {
+    private void addMenuGroup(@NonNull Menu menu, @NonNull MainViewModel.TablesPerAccount tablesPerAccount, @NonNull String groupName, @NonNull List<Table> tables) {
+        final var account = tablesPerAccount.getAccount();
         if (!tables.isEmpty()) {
             final var sharedTables = menu.addSubMenu(groupName);
             for (int i = 0; i < tables.size(); i++) {
@@ -217,7 +276,7 @@ public class MainActivity extends AppCompatActivity {
                     contextMenu = null;
                 }
 
-                sharedTables.add(Menu.NONE, i, Menu.NONE, table.getTitle())
+                sharedTables.add(Menu.NONE, i, Menu.NONE, SpannableUtil.withCount(table.getTitle(), tablesPerAccount.getRowCount(table)))
                         .setCheckable(true)
                         .setIcon(new EmojiDrawable(this, table.getEmoji()))
                         .setActionView(contextMenu)
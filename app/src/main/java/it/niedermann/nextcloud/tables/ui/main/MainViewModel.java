@@ -7,7 +7,9 @@ import static java.util.concurrent.CompletableFuture.supplyAsync;
 import android.app.Application;
 import android.net.NetworkRequest;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.core.util.Pair;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
@@ -15,21 +17,34 @@ import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.database.entity.Row;
 import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.model.SearchResult;
 import it.niedermann.nextcloud.tables.repository.AccountRepository;
 import it.niedermann.nextcloud.tables.repository.PreferencesRepository;
 import it.niedermann.nextcloud.tables.repository.TablesRepository;
+import it.niedermann.nextcloud.tables.repository.sync.SyncScheduler;
 
 public class MainViewModel extends AndroidViewModel {
 
+    private static final int SEARCH_PAGE_SIZE = 50;
     private final ExecutorService executor;
+    private final ExecutorService searchExecutor = Executors.newSingleThreadExecutor();
+    private final MutableLiveData<SearchState> searchState = new MutableLiveData<>();
+    @Nullable
+    private volatile SearchState requestedSearchState;
+    private int searchGeneration = 0;
+    private final SyncScheduler syncScheduler;
     private final AccountRepository accountRepository;
     private final TablesRepository tablesRepository;
     private final PreferencesRepository preferencesRepository;
@@ -40,18 +55,14 @@ public class MainViewModel extends AndroidViewModel {
         this.tablesRepository = new TablesRepository(application);
         this.preferencesRepository = new PreferencesRepository(application);
         this.executor = Executors.newSingleThreadExecutor();
+        this.syncScheduler = SyncScheduler.getInstance();
     }
 
     public CompletableFuture<Void> synchronizeAccountAndTables(@NonNull Account account) {
-        return supplyAsync(() -> {
-            try {
-                this.accountRepository.synchronizeAccount(account);
-                this.tablesRepository.synchronizeTables(account);
-                return null;
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, executor);
+        return syncScheduler.synchronize(account, () -> {
+            this.accountRepository.synchronizeAccount(account);
+            this.tablesRepository.synchronizeTables(account);
+        });
     }
 
     public LiveData<Account> getCurrentAccount() {
@@ -97,6 +108,11 @@ public class MainViewModel extends AndroidViewModel {
                 result$.postValue(resultValue);
             });
 
+            result$.addSource(tablesRepository.getRowCounts$(account), val -> {
+                resultValue.setRowCounts(val);
+                result$.postValue(resultValue);
+            });
+
             return result$;
         });
     }
@@ -116,6 +132,59 @@ public class MainViewModel extends AndroidViewModel {
         }, executor);
     }
 
+    @NonNull
+    public LiveData<List<SearchResult>> getSearchResults() {
+        return map(searchState, state -> state.results);
+    }
+
+    /**
+     * Replaces the current {@link SearchResult}s with the first page for the given <code>query</code>.
+     *
+     * @param table <code>null</code> to search in all {@link Table}s of the given {@link Account}
+     */
+    @MainThread
+    public void search(@NonNull Account account, @Nullable Table table, @NonNull String query) {
+        loadSearchResults(new SearchState(++searchGeneration, account, table, query));
+    }
+
+    /**
+     * Appends the next page to the current {@link SearchResult}s unless all of them have been loaded already.
+     */
+    @MainThread
+    public void loadMoreSearchResults() {
+        final var state = searchState.getValue();
+        // Nothing more to load, a newer search is pending or the next page is already being loaded
+        if (state == null || state.complete || state.generation != searchGeneration || state == requestedSearchState) {
+            return;
+        }
+
+        loadSearchResults(state);
+    }
+
+    @MainThread
+    private void loadSearchResults(@NonNull SearchState previous) {
+        requestedSearchState = previous;
+        searchExecutor.submit(() -> {
+            // Superseded by a newer request
+            if (requestedSearchState != previous) {
+                return;
+            }
+
+            final var page = tablesRepository.search(previous.account, previous.table, previous.query, SEARCH_PAGE_SIZE, previous.results.size());
+            searchState.postValue(previous.next(page, page.size() < SEARCH_PAGE_SIZE));
+        });
+    }
+
+    /**
+     * Makes the {@link Table} of the given {@link SearchResult} the current one.
+     */
+    public CompletableFuture<Pair<Table, Row>> openSearchResult(@NonNull Account account, @NonNull SearchResult searchResult) {
+        return supplyAsync(() -> {
+            accountRepository.setCurrentTable(account.getId(), searchResult.getTableId());
+            return new Pair<>(tablesRepository.getTable(searchResult.getTableId()), tablesRepository.getRow(searchResult.getRowId()));
+        }, executor);
+    }
+
     @NonNull
     public LiveData<Pair<Account, NetworkRequest>> getAccountAndNetworkRequest() {
         return switchMap(getCurrentAccount(), account -> {
@@ -127,6 +196,40 @@ public class MainViewModel extends AndroidViewModel {
         });
     }
 
+    private static class SearchState {
+        private final int generation;
+        @NonNull
+        private final Account account;
+        @Nullable
+        private final Table table;
+        @NonNull
+        private final String query;
+        @NonNull
+        private final List<SearchResult> results;
+        private final boolean complete;
+
+        private SearchState(int generation, @NonNull Account account, @Nullable Table table, @NonNull String query) {
+            this(generation, account, table, query, Collections.emptyList(), false);
+        }
+
+        private SearchState(int generation, @NonNull Account account, @Nullable Table table, @NonNull String query, @NonNull List<SearchResult> results, boolean complete) {
+            this.generation = generation;
+            this.account = account;
+            this.table = table;
+            this.query = query;
+            this.results = results;
+            this.complete = complete;
+        }
+
+        @NonNull
+        private SearchState next(@NonNull List<SearchResult> page, boolean complete) {
+            final var results = new ArrayList<SearchResult>(this.results.size() + page.size());
+            results.addAll(this.results);
+            results.addAll(page);
+            return new SearchState(generation, account, table, query, Collections.unmodifiableList(results), complete);
+        }
+    }
+
     static class TablesPerAccount {
         @NonNull
         private final Account account;
@@ -134,6 +237,8 @@ public class MainViewModel extends AndroidViewModel {
         private final List<Table> ownTables = new ArrayList<>();
         @NonNull
         private final List<Table> sharedTables = new ArrayList<>();
+        @NonNull
+        private final Map<Long, Long> rowCounts = new HashMap<>();
 
         public TablesPerAccount(@NonNull Account account) {
             this.account = account;
@@ -163,5 +268,18 @@ public class MainViewModel extends AndroidViewModel {
             this.sharedTables.clear();
             this.sharedTables.addAll(sharedTables);
         }
+
+        /**
+         * @return number of not deleted {@link it.niedermann.nextcloud.tables.database.entity.Row}s or <code>null</code> if not known yet
+         */
+        @Nullable
+        public Long getRowCount(@NonNull Table table) {
+            return rowCounts.get(table.getId());
+        }
+
+        public void setRowCounts(@NonNull Map<Long, Long> rowCounts) {
+            this.rowCounts.clear();
+            this.rowCounts.putAll(rowCounts);
+        }
     }
 }
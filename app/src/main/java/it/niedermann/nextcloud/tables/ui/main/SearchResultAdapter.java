@@ -0,0 +1,65 @@
+package it.niedermann.nextcloud.tables.ui.main;
+
+import android.view.LayoutInflater;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.Consumer;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.databinding.ItemSearchResultBinding;
+import it.niedermann.nextcloud.tables.model.SearchResult;
+
+public class SearchResultAdapter extends RecyclerView.Adapter<SearchResultViewHolder> {
+
+    @NonNull
+    private final List<SearchResult> searchResults = new ArrayList<>();
+    @NonNull
+    private final Consumer<SearchResult> onSearchResultClick;
+
+    public SearchResultAdapter(@NonNull Consumer<SearchResult> onSearchResultClick) {
+        this.onSearchResultClick = onSearchResultClick;
+        setHasStableIds(true);
+    }
+
+    @Override
+    public long getItemId(int position) {
+        return searchResults.get(position).getDataId();
+    }
+
+    @NonNull
+    @Override
+    public SearchResultViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        return new SearchResultViewHolder(ItemSearchResultBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false));
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull SearchResultViewHolder holder, int position) {
+        holder.bind(searchResults.get(position), onSearchResultClick);
+    }
+
+    @Override
+    public int getItemCount() {
+        return searchResults.size();
+    }
+
+    /**
+     * Subsequent pages are appended to the previous {@link SearchResult}s, so only the new items need to be notified.
+     */
+    public void setSearchResults(@NonNull List<SearchResult> searchResults) {
+        final var previousSize = this.searchResults.size();
+        final var isNextPage = searchResults.size() > previousSize && searchResults.subList(0, previousSize).equals(this.searchResults);
+
+        this.searchResults.clear();
+        this.searchResults.addAll(searchResults);
+
+        if (isNextPage) {
+            notifyItemRangeInserted(previousSize, searchResults.size() - previousSize);
+        } else {
+            notifyDataSetChanged();
+        }
+    }
+}
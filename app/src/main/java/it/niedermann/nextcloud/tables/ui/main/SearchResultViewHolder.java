@@ -0,0 +1,24 @@
+package it.niedermann.nextcloud.tables.ui.main;
+
+import androidx.annotation.NonNull;
+import androidx.core.util.Consumer;
+import androidx.recyclerview.widget.RecyclerView;
+
+import it.niedermann.nextcloud.tables.databinding.ItemSearchResultBinding;
+import it.niedermann.nextcloud.tables.model.SearchResult;
+
+public class SearchResultViewHolder extends RecyclerView.ViewHolder {
+
+    private final ItemSearchResultBinding binding;
+
+    public SearchResultViewHolder(@NonNull ItemSearchResultBinding binding) {
+        super(binding.getRoot());
+        this.binding = binding;
+    }
+
+    public void bind(@NonNull SearchResult searchResult, @NonNull Consumer<SearchResult> onSearchResultClick) {
+        binding.content.setText(searchResult.getContent());
+        binding.table.setText(searchResult.getTableTitleWithEmoji());
+        itemView.setOnClickListener(v -> onSearchResultClick.accept(searchResult));
+    }
+}
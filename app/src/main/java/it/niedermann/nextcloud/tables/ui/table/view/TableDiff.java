@@ -0,0 +1,145 @@
+package it.niedermann.nextcloud.tables.ui.table.view;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+import it.niedermann.nextcloud.tables.model.FullTable;
+
+/**
+ * Targeted updates which turn the previously displayed {@link FullTable} into the next one, so only changed cells get rebound.
+ * Falls back to a full update if the {@link Column}s or selection options changed, because they affect every cell.
+ */
+public class TableDiff {
+
+    private final boolean fullUpdate;
+    @Nullable
+    private final FullTable next;
+    private final List<Operation> operations;
+
+    private TableDiff(boolean fullUpdate, @Nullable FullTable next, @NonNull List<Operation> operations) {
+        this.fullUpdate = fullUpdate;
+        this.next = next;
+        this.operations = operations;
+    }
+
+    /**
+     * {@link Row}s are expected to be sorted by {@link Row#getRemoteId()}, so {@link Row}s which keep their {@link Row#getRemoteId()} keep their relative order.
+     */
+    @WorkerThread
+    @NonNull
+    public static TableDiff calculate(@Nullable FullTable previous, @Nullable FullTable next) {
+        // Workaround for https://github.com/stefan-niedermann/nextcloud-tables/issues/16
+        if (next == null || next.getRows().isEmpty()) {
+            return new TableDiff(true, null, Collections.emptyList());
+        }
+
+        if (previous == null
+                || previous.getRows().isEmpty()
+                || previous.getTable().getId() != next.getTable().getId()
+                || !previous.getSchema().equals(next.getSchema())
+                || !previous.getSelectionDictionary().equals(next.getSelectionDictionary())) {
+            return new TableDiff(true, next, Collections.emptyList());
+        }
+
+        final var operations = new ArrayList<Operation>();
+        final var nextRows = new HashMap<Long, Row>(next.getRows().size() * 2);
+        for (final var row : next.getRows()) {
+            nextRows.put(row.getId(), row);
+        }
+
+        // Remove from the end, so the positions of the pending removals stay valid
+        final var keptRows = new ArrayList<Row>(previous.getRows().size());
+        final var keptPositions = new ArrayList<Integer>(previous.getRows().size());
+        for (int position = previous.getRows().size() - 1; position >= 0; position--) {
+            final var row = previous.getRows().get(position);
+            final var nextRow = nextRows.get(row.getId());
+            if (nextRow == null || !Objects.equals(row.getRemoteId(), nextRow.getRemoteId())) {
+                final var rowPosition = position;
+                operations.add(adapter -> adapter.removeRow(rowPosition));
+            } else {
+                keptRows.add(row);
+                keptPositions.add(position);
+            }
+        }
+        Collections.reverse(keptRows);
+        Collections.reverse(keptPositions);
+
+        // Kept rows are a subsequence of the next rows, everything in between gets inserted
+        final var previousCells = previous.getCells();
+        final var nextCells = next.getCells();
+        int kept = 0;
+        for (int position = 0; position < next.getRows().size(); position++) {
+            final var rowPosition = position;
+            final var nextRow = next.getRows().get(position);
+
+            if (kept < keptRows.size() && keptRows.get(kept).getId() == nextRow.getId()) {
+                if (!keptRows.get(kept).equals(nextRow)) {
+                    operations.add(adapter -> adapter.changeRowHeaderItem(rowPosition, nextRow));
+                }
+
+                final int previousPosition = keptPositions.get(kept);
+                for (int columnPosition = 0; columnPosition < nextCells.getColumnCount(); columnPosition++) {
+                    final var value = nextCells.getValue(position, columnPosition);
+                    if (!Objects.equals(previousCells.getValue(previousPosition, columnPosition), value)) {
+                        final var changedColumnPosition = columnPosition;
+                        operations.add(adapter -> adapter.changeCellItem(changedColumnPosition, rowPosition, value));
+                    }
+                }
+
+                kept++;
+            } else {
+                operations.add(adapter -> adapter.addRow(rowPosition, nextRow, nextCells.getRow(rowPosition)));
+            }
+        }
+
+        return new TableDiff(false, next, operations);
+    }
+
+    /**
+     * @return whether all items will be replaced, which resets the scroll position
+     */
+    public boolean isFullUpdate() {
+        return fullUpdate;
+    }
+
+    public int size() {
+        return fullUpdate ? 1 : operations.size();
+    }
+
+    /**
+     * Passes copies and views to the {@link TableViewAdapter} because it modifies the given {@link List}s, while the {@link FullTable} is kept for the next {@link #calculate(FullTable, FullTable)}.
+     */
+    @MainThread
+    public void dispatchUpdatesTo(@NonNull TableViewAdapter adapter) {
+        if (!fullUpdate) {
+            for (final var operation : operations) {
+                operation.applyTo(adapter);
+            }
+            return;
+        }
+
+        if (next == null) {
+            adapter.setAllItems(new ArrayList<>(), new ArrayList<>(), new ArrayList<>());
+        } else {
+            final var cells = new ArrayList<List<String>>(next.getRows().size());
+            for (int rowPosition = 0; rowPosition < next.getRows().size(); rowPosition++) {
+                cells.add(next.getCells().getRow(rowPosition));
+            }
+            adapter.setAllItems(next.getSchema(), new ArrayList<>(next.getRows()), cells, next.getSelectionDictionary());
+        }
+    }
+
+    private interface Operation {
+        void applyTo(@NonNull TableViewAdapter adapter);
+    }
+}
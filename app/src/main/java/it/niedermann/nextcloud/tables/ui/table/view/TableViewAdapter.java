@@ -1,9 +1,13 @@
 package it.niedermann.nextcloud.tables.ui.table.view;
 
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 
+import androidx.annotation.MainThread;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
@@ -11,39 +15,66 @@ import com.evrencoskun.tableview.adapter.AbstractTableAdapter;
 import com.evrencoskun.tableview.adapter.recyclerview.holder.AbstractViewHolder;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
 
 import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.database.entity.Row;
-import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 import it.niedermann.nextcloud.tables.databinding.TableviewColumnHeaderBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewCornerBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewRowHeaderBinding;
 import it.niedermann.nextcloud.tables.model.EDataType;
+import it.niedermann.nextcloud.tables.model.FullTable;
+import it.niedermann.nextcloud.tables.model.SelectionDictionary;
+import it.niedermann.nextcloud.tables.model.TableSchema;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.CellViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.ColumnHeaderViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.RowHeaderViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.selection.SelectionViewHolder;
+import it.niedermann.nextcloud.tables.ui.util.MarkdownCache;
 
-public class TableViewAdapter extends AbstractTableAdapter<Column, Row, Data> {
+public class TableViewAdapter extends AbstractTableAdapter<Column, Row, String> {
 
+    private static final ExecutorService diffExecutor = Executors.newSingleThreadExecutor();
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
     private final CellViewHolder.Factory cellViewHolderFactory;
-    private final List<SelectionOption> selectionOptions = new ArrayList<>();
+    private final MarkdownCache markdownCache;
+    @NonNull
+    private SelectionDictionary selectionDictionary = SelectionDictionary.empty();
+    @NonNull
+    private TableSchema schema = TableSchema.empty();
+    @Nullable
+    private FullTable displayedTable;
+    @NonNull
+    private Map<Long, String> columnSummaries = Collections.emptyMap();
+    private long latestGeneration = 0;
 
-    public TableViewAdapter() {
-        this(new CellViewHolder.Factory());
+    public TableViewAdapter(@NonNull Context context) {
+        this(MarkdownCache.getInstance(context));
     }
 
-    private TableViewAdapter(@NonNull CellViewHolder.Factory cellViewHolderFactory) {
+    private TableViewAdapter(@NonNull MarkdownCache markdownCache) {
+        this(new CellViewHolder.Factory(markdownCache), markdownCache);
+    }
+
+    private TableViewAdapter(@NonNull CellViewHolder.Factory cellViewHolderFactory,
+                             @NonNull MarkdownCache markdownCache) {
         this.cellViewHolderFactory = cellViewHolderFactory;
+        this.markdownCache = markdownCache;
     }
 
     @Override
     public int getCellItemViewType(int columnPosition) {
-        return EDataType.findByColumn(getColumnHeaderItem(columnPosition)).getId();
+        return columnPosition < schema.getColumnCount()
+                ? schema.getViewType(columnPosition)
+                : EDataType.UNKNOWN.getId();
     }
 
     @NonNull
@@ -53,7 +84,7 @@ public class TableViewAdapter extends AbstractTableAdapter<Column, Row, Data> {
     }
 
     @Override
-    public void onBindCellViewHolder(@NonNull AbstractViewHolder holder, @Nullable Data cellItemModel, int columnPosition, int rowPosition) {
+    public void onBindCellViewHolder(@NonNull AbstractViewHolder holder, @Nullable String cellItemModel, int columnPosition, int rowPosition) {
         final var column = getColumnHeaderItem(columnPosition);
 
         try {
@@ -62,7 +93,7 @@ public class TableViewAdapter extends AbstractTableAdapter<Column, Row, Data> {
             }
 
             if (holder instanceof SelectionViewHolder) {
-                ((SelectionViewHolder) holder).bind(cellItemModel, column, selectionOptions);
+                ((SelectionViewHolder) holder).bind(cellItemModel, column, selectionDictionary);
             } else if (holder instanceof CellViewHolder) {
                 ((CellViewHolder) holder).bind(cellItemModel, column);
             } else {
@@ -89,7 +120,7 @@ public class TableViewAdapter extends AbstractTableAdapter<Column, Row, Data> {
             }
 
             if (holder instanceof ColumnHeaderViewHolder) {
-                ((ColumnHeaderViewHolder) holder).bind(columnHeaderItemModel);
+                ((ColumnHeaderViewHolder) holder).bind(columnHeaderItemModel, columnSummaries.get(columnHeaderItemModel.getId()));
             } else {
                 throw new IllegalArgumentException("Unknown view holder type " + holder);
             }
@@ -131,19 +162,80 @@ public class TableViewAdapter extends AbstractTableAdapter<Column, Row, Data> {
         return TableviewCornerBinding.inflate(LayoutInflater.from(parent.getContext()), parent, false).getRoot();
     }
 
+    /**
+     * Calculates the {@link TableDiff} to the currently displayed {@link FullTable} in the background.
+     * The {@link TableDiff} is passed to the given <code>applier</code> on the main thread, unless a newer {@link FullTable} has been submitted meanwhile.
+     */
+    @MainThread
+    public void submit(@Nullable FullTable fullTable, @NonNull Consumer<TableDiff> applier) {
+        final var previous = displayedTable;
+        final var generation = ++latestGeneration;
+
+        diffExecutor.submit(() -> {
+            final var diff = TableDiff.calculate(previous, fullTable);
+            if (fullTable != null) {
+                markdownCache.prerender(getMarkdownValues(fullTable));
+            }
+            mainHandler.post(() -> {
+                if (generation != latestGeneration) {
+                    return;
+                }
+
+                applier.accept(diff);
+                displayedTable = fullTable;
+            });
+        });
+    }
+
+    /**
+     * @return all loaded values of the {@link FullTable} which will be rendered as markdown
+     */
+    @NonNull
+    private static Collection<String> getMarkdownValues(@NonNull FullTable fullTable) {
+        final var schema = fullTable.getSchema();
+        final var cells = fullTable.getCells();
+        final var values = new HashSet<String>();
+        for (int col = 0; col < cells.getColumnCount() && col < schema.getColumnCount(); col++) {
+            final var type = schema.getType(col);
+            if (type != EDataType.TEXT_RICH && type != EDataType.TEXT_LONG) {
+                continue;
+            }
+
+            for (int row = 0; row < cells.getRowCount(); row++) {
+                final var value = cells.getValue(row, col);
+                if (value != null) {
+                    values.add(value);
+                }
+            }
+        }
+        return values;
+    }
+
     @Override
     public void setAllItems(@Nullable List<Column> columnHeaderItems,
                             @Nullable List<Row> rowHeaderItems,
-                            @Nullable List<List<Data>> cellItems) {
-        setAllItems(columnHeaderItems, rowHeaderItems, cellItems, Collections.emptyList());
+                            @Nullable List<List<String>> cellItems) {
+        this.schema = columnHeaderItems == null ? TableSchema.empty() : new TableSchema(columnHeaderItems);
+        this.selectionDictionary = SelectionDictionary.empty();
+        super.setAllItems(columnHeaderItems, rowHeaderItems, cellItems);
     }
 
-    public void setAllItems(@Nullable List<Column> columnHeaderItems,
+    /**
+     * @param columnSummaries by {@link Column#getId()}
+     */
+    public void setColumnSummaries(@NonNull Map<Long, String> columnSummaries) {
+        if (!this.columnSummaries.equals(columnSummaries)) {
+            this.columnSummaries = columnSummaries;
+            getColumnHeaderRecyclerViewAdapter().notifyDataSetChanged();
+        }
+    }
+
+    public void setAllItems(@NonNull TableSchema schema,
                             @Nullable List<Row> rowHeaderItems,
-                            @Nullable List<List<Data>> cellItems,
-                            @NonNull List<SelectionOption> selectionOptions) {
-        this.selectionOptions.clear();
-        this.selectionOptions.addAll(selectionOptions);
-        super.setAllItems(columnHeaderItems, rowHeaderItems, cellItems);
+                            @Nullable List<List<String>> cellItems,
+                            @NonNull SelectionDictionary selectionDictionary) {
+        this.schema = schema;
+        this.selectionDictionary = selectionDictionary;
+        super.setAllItems(new ArrayList<>(schema.getColumns()), rowHeaderItems, cellItems);
     }
 }
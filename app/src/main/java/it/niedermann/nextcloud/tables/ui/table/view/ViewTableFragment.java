@@ -17,7 +17,7 @@ import androidx.recyclerview.widget.RecyclerView;
 
 import com.google.android.material.dialog.MaterialAlertDialogBuilder;
 
-import java.util.Collections;
+import java.util.Objects;
 import java.util.Optional;
 
 import it.niedermann.nextcloud.tables.R;
@@ -37,10 +37,12 @@ public class ViewTableFragment extends Fragment {
     private FragmentTableBinding binding;
     private ViewTableViewModel viewTableViewModel;
     private TableViewAdapter adapter;
+    @Nullable
+    private Long displayedTableId;
 
     public View onCreateView(@NonNull LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
         binding = FragmentTableBinding.inflate(inflater, container, false);
-        adapter = new TableViewAdapter();
+        adapter = new TableViewAdapter(requireContext());
         binding.tableView.setAdapter(adapter);
         binding.tableView.getCellRecyclerView().addOnScrollListener(new RecyclerView.OnScrollListener() {
             @Override
@@ -48,6 +50,16 @@ public class ViewTableFragment extends Fragment {
                 super.onScrollStateChanged(recyclerView, newState);
                 binding.swipeRefreshLayout.setEnabled(binding.tableView.getCellLayoutManager().findFirstCompletelyVisibleItemPosition() == 0);
             }
+
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                super.onScrolled(recyclerView, dx, dy);
+                final var firstPosition = binding.tableView.getCellLayoutManager().findFirstVisibleItemPosition();
+                final var lastPosition = binding.tableView.getCellLayoutManager().findLastVisibleItemPosition();
+                if (viewTableViewModel != null && firstPosition != RecyclerView.NO_POSITION && lastPosition != RecyclerView.NO_POSITION) {
+                    viewTableViewModel.setVisibleRows(firstPosition, lastPosition);
+                }
+            }
         });
 
         return binding.getRoot();
@@ -58,16 +70,21 @@ public class ViewTableFragment extends Fragment {
         super.onViewCreated(view, savedInstanceState);
         viewTableViewModel = new ViewModelProvider(this).get(ViewTableViewModel.class);
         viewTableViewModel.getCurrentFullTable().observe(getViewLifecycleOwner(), pair -> {
-            binding.tableView.getScrollHandler().scrollToRowPosition(0);
-            binding.tableView.getScrollHandler().scrollToColumnPosition(0);
+            final var tableId = pair.second == null ? null : pair.second.getTable().getId();
+            if (!Objects.equals(displayedTableId, tableId)) {
+                displayedTableId = tableId;
+                binding.tableView.getScrollHandler().scrollToRowPosition(0);
+                binding.tableView.getScrollHandler().scrollToColumnPosition(0);
+            }
             applyCurrentTable(pair.first, pair.second);
         });
+        viewTableViewModel.getCurrentColumnSummaries().observe(getViewLifecycleOwner(), adapter::setColumnSummaries);
     }
 
     private void applyCurrentTable(@NonNull Account account, @Nullable FullTable fullTable) {
         if (fullTable == null) {
             Log.i(TAG, "Current table: " + null);
-            adapter.setAllItems(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+            adapter.submit(null, this::applyDiff);
             binding.tableView.setTableViewListener(null);
             binding.fab.setVisibility(View.GONE);
             binding.swipeRefreshLayout.setOnRefreshListener(null);
@@ -78,19 +95,7 @@ public class ViewTableFragment extends Fragment {
 
         binding.fab.setVisibility(fullTable.getTable().hasCreatePermission() ? View.VISIBLE : View.GONE);
 
-        final var rowPosition = binding.tableView.getCellLayoutManager().findFirstVisibleItemPosition();
-        final var columnPosition = binding.tableView.getColumnHeaderLayoutManager().findFirstVisibleItemPosition();
-
-        // Workaround for https://github.com/stefan-niedermann/nextcloud-tables/issues/16
-        if (fullTable.getRows().isEmpty()) {
-            adapter.setAllItems(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
-        } else {
-            adapter.setAllItems(fullTable.getColumns(), fullTable.getRows(), fullTable.getData(), fullTable.getSelectionOptions());
-        }
-
-        binding.tableView.getCellLayoutManager().scrollToPosition(rowPosition);
-        binding.tableView.getRowHeaderLayoutManager().scrollToPosition(rowPosition);
-        binding.tableView.getColumnHeaderLayoutManager().scrollToPosition(columnPosition);
+        adapter.submit(fullTable, this::applyDiff);
 
         binding.tableView.setTableViewListener(new DefaultTableViewListener() {
             @Override
@@ -100,7 +105,7 @@ public class ViewTableFragment extends Fragment {
                     return;
                 }
 
-                final var row = fullTable.getRows().get(rowPosition);
+                final var row = adapter.getRowHeaderItem(rowPosition);
                 if (row == null) {
                     ExceptionDialogFragment.newInstance(new IllegalStateException("No row header at position " + rowPosition), account).show(getChildFragmentManager(), ExceptionDialogFragment.class.getSimpleName());
                 } else {
@@ -224,6 +229,30 @@ public class ViewTableFragment extends Fragment {
         }, ContextCompat.getMainExecutor(requireContext())));
     }
 
+    /**
+     * Only full updates reset the scroll position, targeted updates keep it anyway.
+     */
+    private void applyDiff(@NonNull TableDiff diff) {
+        if (binding == null) {
+            return;
+        }
+
+        if (!diff.isFullUpdate()) {
+            Log.v(TAG, "Applying " + diff.size() + " changes");
+            diff.dispatchUpdatesTo(adapter);
+            return;
+        }
+
+        final var rowPosition = binding.tableView.getCellLayoutManager().findFirstVisibleItemPosition();
+        final var columnPosition = binding.tableView.getColumnHeaderLayoutManager().findFirstVisibleItemPosition();
+
+        diff.dispatchUpdatesTo(adapter);
+
+        binding.tableView.getCellLayoutManager().scrollToPosition(rowPosition);
+        binding.tableView.getRowHeaderLayoutManager().scrollToPosition(rowPosition);
+        binding.tableView.getColumnHeaderLayoutManager().scrollToPosition(columnPosition);
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
@@ -4,14 +4,20 @@ import static androidx.lifecycle.Transformations.switchMap;
 import static java.util.concurrent.CompletableFuture.supplyAsync;
 
 import android.app.Application;
+import android.util.Range;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.util.Pair;
 import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.ExecutorService;
@@ -20,36 +26,49 @@ import java.util.concurrent.Executors;
 import it.niedermann.android.reactivelivedata.ReactiveLiveData;
 import it.niedermann.nextcloud.tables.database.entity.Account;
 import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.database.entity.Row;
 import it.niedermann.nextcloud.tables.database.entity.Table;
+import it.niedermann.nextcloud.tables.model.ColumnSummaries;
 import it.niedermann.nextcloud.tables.model.FullTable;
 import it.niedermann.nextcloud.tables.model.FullTableLiveData;
 import it.niedermann.nextcloud.tables.repository.AccountRepository;
 import it.niedermann.nextcloud.tables.repository.TablesRepository;
+import it.niedermann.nextcloud.tables.repository.sync.SyncScheduler;
 
 public class ViewTableViewModel extends AndroidViewModel {
 
     private final ExecutorService executor;
+    private final SyncScheduler syncScheduler;
     private final AccountRepository accountRepository;
     private final TablesRepository tablesRepository;
+    private final ColumnSummaries columnSummaries;
+    private final MutableLiveData<Range<Integer>> visibleRows = new MutableLiveData<>();
 
     public ViewTableViewModel(@NonNull Application application) {
         super(application);
         accountRepository = new AccountRepository(application);
         tablesRepository = new TablesRepository(application);
         executor = Executors.newSingleThreadExecutor();
+        syncScheduler = SyncScheduler.getInstance();
+        columnSummaries = new ColumnSummaries();
     }
 
     public CompletableFuture<Void> synchronizeAccountAndTables(@NonNull Account account) {
-        return supplyAsync(() -> {
-            try {
-                this.accountRepository.synchronizeAccount(account);
-                this.tablesRepository.synchronizeTables(account);
-                return null;
-            } catch (Exception e) {
-                throw new CompletionException(e);
-            }
-        }, executor);
+        return syncScheduler.synchronize(account, () -> {
+            this.accountRepository.synchronizeAccount(account);
+            this.tablesRepository.synchronizeTables(account);
+        });
+    }
+
+    /**
+     * Cell data is only kept in memory around the visible rows
+     */
+    public void setVisibleRows(int firstPosition, int lastPosition) {
+        final var range = new Range<>(firstPosition, lastPosition);
+        if (!range.equals(visibleRows.getValue())) {
+            visibleRows.setValue(range);
+        }
     }
 
     public LiveData<Account> getCurrentAccount() {
@@ -81,13 +100,61 @@ public class ViewTableViewModel extends AndroidViewModel {
 
         return new FullTableLiveData(
                 table,
-                tablesRepository.getNotDeletedRows$(table),
+                tablesRepository.getRowChanges$(table),
                 tablesRepository.getNotDeletedColumns$(table),
                 tablesRepository.getUsedSelectionOptions(table),
-                tablesRepository.getData(table)
+                visibleRows,
+                new FullTableLiveData.RowLoader() {
+                    @NonNull
+                    @Override
+                    public List<Row> loadRows(@Nullable Collection<Long> rowIds) {
+                        return tablesRepository.getNotDeletedRows(table, rowIds);
+                    }
+
+                    @NonNull
+                    @Override
+                    public List<Data> loadData(@NonNull Collection<Long> rowIds) {
+                        return tablesRepository.getData(rowIds);
+                    }
+                }
         );
     }
 
+    /**
+     * @return summaries of the values of each {@link Column} of the current {@link Table} by {@link Column#getId()}
+     */
+    public LiveData<Map<Long, String>> getCurrentColumnSummaries() {
+        return switchMap(getCurrentAccount(), account -> {
+            if (account == null || account.getCurrentTable() == null) {
+                return new MutableLiveData<>(Collections.emptyMap());
+            }
+
+            return switchMap(tablesRepository.getNotDeletedTable$(account.getCurrentTable()), this::getColumnSummaries);
+        });
+    }
+
+    private LiveData<Map<Long, String>> getColumnSummaries(@Nullable Table table) {
+        if (table == null) {
+            return new MutableLiveData<>(Collections.emptyMap());
+        }
+
+        final var result$ = new MediatorLiveData<Map<Long, String>>();
+        final var columnAggregates$ = tablesRepository.getColumnAggregates$(table);
+        final var selectionOptionCounts$ = tablesRepository.getSelectionOptionCounts$(table);
+        final Runnable summarize = () -> {
+            final var columnAggregates = columnAggregates$.getValue();
+            final var selectionOptionCounts = selectionOptionCounts$.getValue();
+            result$.setValue(columnSummaries.summarize(
+                    columnAggregates == null ? Collections.emptyList() : columnAggregates,
+                    selectionOptionCounts == null ? Collections.emptyList() : selectionOptionCounts));
+        };
+
+        result$.addSource(columnAggregates$, val -> summarize.run());
+        result$.addSource(selectionOptionCounts$, val -> summarize.run());
+
+        return result$;
+    }
+
     public CompletableFuture<Void> deleteRow(@NonNull Table table, @NonNull Row row) {
         return supplyAsync(() -> {
             try {
@@ -13,16 +13,13 @@ import com.evrencoskun.tableview.adapter.recyclerview.holder.AbstractViewHolder;
 import java.util.Optional;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellCheckBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellProgressBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellRichBinding;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellStarsBinding;
+import it.niedermann.nextcloud.tables.model.CellFormatter;
 import it.niedermann.nextcloud.tables.model.EDataType;
-import it.niedermann.nextcloud.tables.ui.table.view.holder.type.datetime.DateCellViewHolder;
-import it.niedermann.nextcloud.tables.ui.table.view.holder.type.datetime.DateTimeCellViewHolder;
-import it.niedermann.nextcloud.tables.ui.table.view.holder.type.datetime.TimeCellViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.number.NumberCellViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.number.ProgressCellViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.number.StarsCellViewHolder;
@@ -32,6 +29,7 @@ import it.niedermann.nextcloud.tables.ui.table.view.holder.type.selection.Select
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.text.LineCellViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.text.RichViewHolder;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.type.text.TextCellViewHolder;
+import it.niedermann.nextcloud.tables.ui.util.MarkdownCache;
 
 public abstract class CellViewHolder extends AbstractViewHolder {
 
@@ -39,7 +37,19 @@ public abstract class CellViewHolder extends AbstractViewHolder {
         super(itemView);
     }
 
-    public abstract void bind(@Nullable Data data, @NonNull Column column);
+    /**
+     * @param value display text prepared by {@link CellFormatter} or <code>null</code> if there is no value for this cell
+     */
+    public abstract void bind(@Nullable String value, @NonNull Column column);
+
+    /**
+     * Resets the width which has been fitted to the column. Requesting the layout of the content propagates to all parents, so one request is sufficient.
+     */
+    protected void setWidth(@NonNull View content, int width) {
+        content.getLayoutParams().width = width;
+        itemView.getLayoutParams().width = width;
+        content.requestLayout();
+    }
 
     @NonNull
     public Optional<QuickActionProvider> getQuickActionProvider() {
@@ -63,22 +73,21 @@ public abstract class CellViewHolder extends AbstractViewHolder {
 
     public static class Factory {
 
+        private final MarkdownCache markdownCache;
+
+        public Factory(@NonNull MarkdownCache markdownCache) {
+            this.markdownCache = markdownCache;
+        }
+
         @NonNull
         public CellViewHolder create(@NonNull EDataType dataType, @NonNull ViewGroup parent) {
             final var layoutInflater = LayoutInflater.from(parent.getContext());
             switch (dataType) {
                 case TEXT_RICH:
                 case TEXT_LONG:
-                    return new RichViewHolder(TableviewCellRichBinding.inflate(layoutInflater, parent, false));
+                    return new RichViewHolder(TableviewCellRichBinding.inflate(layoutInflater, parent, false), markdownCache);
                 case TEXT_LINE:
                     return new LineCellViewHolder(TableviewCellBinding.inflate(layoutInflater, parent, false));
-                case DATETIME:
-                case DATETIME_DATETIME:
-                    return new DateTimeCellViewHolder(TableviewCellBinding.inflate(layoutInflater, parent, false));
-                case DATETIME_DATE:
-                    return new DateCellViewHolder(TableviewCellBinding.inflate(layoutInflater, parent, false));
-                case DATETIME_TIME:
-                    return new TimeCellViewHolder(TableviewCellBinding.inflate(layoutInflater, parent, false));
                 case SELECTION:
                     return new SelectionViewHolder(TableviewCellBinding.inflate(layoutInflater, parent, false));
                 case SELECTION_MULTI:
@@ -91,6 +100,10 @@ public abstract class CellViewHolder extends AbstractViewHolder {
                     return new ProgressCellViewHolder(TableviewCellProgressBinding.inflate(layoutInflater, parent, false));
                 case NUMBER_STARS:
                     return new StarsCellViewHolder(TableviewCellStarsBinding.inflate(layoutInflater, parent, false));
+                case DATETIME:
+                case DATETIME_DATETIME:
+                case DATETIME_DATE:
+                case DATETIME_TIME:
                 case TEXT:
                 case TEXT_LINK:
                 case UNKNOWN:
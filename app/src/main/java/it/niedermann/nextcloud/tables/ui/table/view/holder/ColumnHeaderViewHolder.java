@@ -1,9 +1,11 @@
 package it.niedermann.nextcloud.tables.ui.table.view.holder;
 
 import android.view.Gravity;
+import android.view.View;
 import android.widget.LinearLayout;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
 import com.evrencoskun.tableview.adapter.recyclerview.holder.AbstractSorterViewHolder;
 import com.evrencoskun.tableview.sort.SortState;
@@ -25,10 +27,17 @@ public class ColumnHeaderViewHolder extends AbstractSorterViewHolder {
         this.binding = binding;
     }
 
-    public void bind(@NonNull Column column) {
-        binding.columnHeaderTextView.setGravity(getGravity(column));
+    /**
+     * @param summary aggregates of all values of the {@link Column}, shown below the title
+     */
+    public void bind(@NonNull Column column, @Nullable String summary) {
+        final var gravity = getGravity(column);
+        binding.columnHeaderTextView.setGravity(gravity);
         binding.columnHeaderTextView.setText(column.getTitle());
         binding.columnHeaderTextView.setContentDescription(column.getDescription());
+        binding.columnHeaderSummary.setGravity(gravity);
+        binding.columnHeaderSummary.setText(summary);
+        binding.columnHeaderSummary.setVisibility(summary == null ? View.GONE : View.VISIBLE);
 
         binding.getRoot().getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
         binding.getRoot().requestLayout();
@@ -7,7 +7,6 @@ import androidx.annotation.Nullable;
 
 import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellProgressBinding;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.CellViewHolder;
 
@@ -21,21 +20,16 @@ public class ProgressCellViewHolder extends CellViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        if (data == null) {
+    public void bind(@Nullable String value, @NonNull Column column) {
+        try {
+            final var progress = TextUtils.isEmpty(value) ? 0 : Integer.parseInt(value);
+            binding.progress.setProgressCompat(progress, false);
+        } catch (NumberFormatException e) {
             binding.progress.setProgressCompat(0, false);
-        } else {
-            final var value = data.getValue();
-            try {
-                final var progress = TextUtils.isEmpty(value) ? 0 : Integer.parseInt(data.getValue());
-                binding.progress.setProgressCompat(progress, false);
-            } catch (NumberFormatException e) {
-                binding.progress.setProgressCompat(0, false);
-                e.printStackTrace();
-
-                if (FeatureToggle.STRICT_MODE.enabled) {
-                    throw new IllegalArgumentException("Could not parse progress: " + value, e);
-                }
+            e.printStackTrace();
+
+            if (FeatureToggle.STRICT_MODE.enabled) {
+                throw new IllegalArgumentException("Could not parse progress: " + value, e);
             }
         }
     }
@@ -9,7 +9,6 @@ import androidx.annotation.Nullable;
 import it.niedermann.nextcloud.tables.R;
 import it.niedermann.nextcloud.tables.TablesApplication.FeatureToggle;
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellStarsBinding;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.CellViewHolder;
 
@@ -23,19 +22,14 @@ public class StarsCellViewHolder extends CellViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        if (data == null) {
+    public void bind(@Nullable String value, @NonNull Column column) {
+        try {
+            final var stars = TextUtils.isEmpty(value) ? 0 : Integer.parseInt(value);
+            setStars(stars);
+        } catch (NumberFormatException e) {
             setStars(0);
-        } else {
-            final var value = data.getValue();
-            try {
-                final var stars = TextUtils.isEmpty(value) ? 0 : Integer.parseInt(data.getValue());
-                setStars(stars);
-            } catch (NumberFormatException e) {
-                setStars(0);
-                if (FeatureToggle.STRICT_MODE.enabled) {
-                    throw e;
-                }
+            if (FeatureToggle.STRICT_MODE.enabled) {
+                throw e;
             }
         }
     }
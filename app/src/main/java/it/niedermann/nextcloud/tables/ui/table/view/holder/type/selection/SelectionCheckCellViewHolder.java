@@ -4,7 +4,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellCheckBinding;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.CellViewHolder;
 
@@ -18,7 +17,7 @@ public class SelectionCheckCellViewHolder extends CellViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        binding.check.setChecked(data != null && Boolean.parseBoolean(data.getValue()));
+    public void bind(@Nullable String value, @NonNull Column column) {
+        binding.check.setChecked(Boolean.parseBoolean(value));
     }
 }
@@ -5,12 +5,9 @@ import android.widget.LinearLayout;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
-import java.util.List;
-
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
-import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellBinding;
+import it.niedermann.nextcloud.tables.model.SelectionDictionary;
 
 public class SelectionMultiViewHolder extends SelectionViewHolder {
 
@@ -19,13 +16,9 @@ public class SelectionMultiViewHolder extends SelectionViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column, @NonNull List<SelectionOption> selectionOptions) {
-        binding.data.setText(data == null ? null : formatValue(data.getValue(), column.getId(), selectionOptions));
-
-        binding.data.getLayoutParams().width = LinearLayout.LayoutParams.MATCH_PARENT;
-        binding.data.requestLayout();
+    public void bind(@Nullable String value, @NonNull Column column, @NonNull SelectionDictionary selectionDictionary) {
+        binding.data.setText(value == null ? null : selectionDictionary.format(column.getId(), value));
 
-        binding.getRoot().getLayoutParams().width = LinearLayout.LayoutParams.MATCH_PARENT;
-        binding.getRoot().requestLayout();
+        setWidth(binding.data, LinearLayout.LayoutParams.MATCH_PARENT);
     }
 }
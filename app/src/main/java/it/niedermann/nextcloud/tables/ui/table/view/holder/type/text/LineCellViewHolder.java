@@ -6,7 +6,6 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellBinding;
 
 public class LineCellViewHolder extends TextCellViewHolder {
@@ -16,13 +15,9 @@ public class LineCellViewHolder extends TextCellViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        binding.data.setText(data == null ? null : data.getValue());
+    public void bind(@Nullable String value, @NonNull Column column) {
+        binding.data.setText(value);
 
-        binding.data.getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.data.requestLayout();
-
-        binding.getRoot().getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.getRoot().requestLayout();
+        setWidth(binding.data, LinearLayout.LayoutParams.WRAP_CONTENT);
     }
 }
@@ -7,7 +7,6 @@ import androidx.annotation.Nullable;
 import androidx.core.text.HtmlCompat;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellBinding;
 
 public class LongCellViewHolder extends TextCellViewHolder {
@@ -17,18 +16,9 @@ public class LongCellViewHolder extends TextCellViewHolder {
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        if (data == null) {
-            binding.data.setText(null);
-        } else {
-            final var value = data.getValue();
-            binding.data.setText(value == null ? null : HtmlCompat.fromHtml(value, 0));
-        }
+    public void bind(@Nullable String value, @NonNull Column column) {
+        binding.data.setText(value == null ? null : HtmlCompat.fromHtml(value, 0));
 
-        binding.data.getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.data.requestLayout();
-
-        binding.getRoot().getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.getRoot().requestLayout();
+        setWidth(binding.data, LinearLayout.LayoutParams.WRAP_CONTENT);
     }
 }
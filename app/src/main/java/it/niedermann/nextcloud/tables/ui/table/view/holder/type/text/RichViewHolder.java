@@ -6,27 +6,25 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
 import it.niedermann.nextcloud.tables.database.entity.Column;
-import it.niedermann.nextcloud.tables.database.entity.Data;
 import it.niedermann.nextcloud.tables.databinding.TableviewCellRichBinding;
 import it.niedermann.nextcloud.tables.ui.table.view.holder.CellViewHolder;
+import it.niedermann.nextcloud.tables.ui.util.MarkdownCache;
 
 public class RichViewHolder extends CellViewHolder {
 
     protected final TableviewCellRichBinding binding;
+    private final MarkdownCache markdownCache;
 
-    public RichViewHolder(@NonNull TableviewCellRichBinding binding) {
+    public RichViewHolder(@NonNull TableviewCellRichBinding binding, @NonNull MarkdownCache markdownCache) {
         super(binding.getRoot());
         this.binding = binding;
+        this.markdownCache = markdownCache;
     }
 
     @Override
-    public void bind(@Nullable Data data, @NonNull Column column) {
-        binding.rich.setMarkdownString(data == null ? null : data.getValue());
+    public void bind(@Nullable String value, @NonNull Column column) {
+        markdownCache.setMarkdown(binding.rich, value);
 
-        binding.rich.getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.rich.requestLayout();
-
-        binding.getRoot().getLayoutParams().width = LinearLayout.LayoutParams.WRAP_CONTENT;
-        binding.getRoot().requestLayout();
+        setWidth(binding.rich, LinearLayout.LayoutParams.WRAP_CONTENT);
     }
 }
@@ -0,0 +1,123 @@
+package it.niedermann.nextcloud.tables.ui.util;
+
+import android.content.ComponentCallbacks2;
+import android.content.Context;
+import android.text.Spanned;
+import android.text.TextUtils;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.TextView;
+
+import androidx.annotation.MainThread;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.annotation.WorkerThread;
+
+import java.util.Collection;
+
+import io.noties.markwon.Markwon;
+import io.noties.markwon.SoftBreakAddsNewLinePlugin;
+import io.noties.markwon.ext.strikethrough.StrikethroughPlugin;
+import io.noties.markwon.ext.tables.TablePlugin;
+import io.noties.markwon.ext.tasklist.TaskListPlugin;
+import io.noties.markwon.linkify.LinkifyPlugin;
+
+/**
+ * Keeps rendered markdown of rich text cells, so binding a cell only needs to attach the prepared spans.
+ * Entries are keyed by the markdown itself, so equal values of different cells share one rendering.
+ * Uses the same syntax extensions as the markdown viewer of nextcloud-commons, so cells render like they did before.
+ */
+public class MarkdownCache {
+
+    private static final String TAG = MarkdownCache.class.getSimpleName();
+    private static final int MAX_SIZE_IN_BYTES = 4 * 1024 * 1024;
+    /**
+     * Rough estimation of the heap used by one span
+     */
+    private static final int SPAN_SIZE_IN_BYTES = 64;
+    private static volatile MarkdownCache instance;
+    private final Markwon markwon;
+    private final LruCache<String, Spanned> cache = new LruCache<>(MAX_SIZE_IN_BYTES) {
+        @Override
+        protected int sizeOf(@NonNull String markdown, @NonNull Spanned spanned) {
+            return (markdown.length() + spanned.length()) * Character.BYTES
+                    + spanned.getSpans(0, spanned.length(), Object.class).length * SPAN_SIZE_IN_BYTES;
+        }
+    };
+
+    private MarkdownCache(@NonNull Context context) {
+        this.markwon = Markwon.builder(context)
+                .usePlugin(StrikethroughPlugin.create())
+                .usePlugin(TablePlugin.create(context))
+                .usePlugin(TaskListPlugin.create(context))
+                .usePlugin(LinkifyPlugin.create(true))
+                .usePlugin(SoftBreakAddsNewLinePlugin.create())
+                .build();
+    }
+
+    public static MarkdownCache getInstance(@NonNull Context context) {
+        if (instance == null) {
+            synchronized (MarkdownCache.class) {
+                if (instance == null) {
+                    instance = new MarkdownCache(context.getApplicationContext());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Renders all given values which are not yet cached, so they are ready once they get bound.
+     */
+    @WorkerThread
+    public void prerender(@NonNull Collection<String> markdowns) {
+        int rendered = 0;
+        for (final var markdown : markdowns) {
+            if (!TextUtils.isEmpty(markdown) && cache.get(markdown) == null) {
+                cache.put(markdown, markwon.toMarkdown(markdown));
+                rendered++;
+            }
+        }
+
+        if (rendered > 0) {
+            Log.v(TAG, "Prerendered " + rendered + " values (" + cache.size() + " bytes cached)");
+        }
+    }
+
+    /**
+     * Falls back to rendering on the calling thread if the given value has not been prerendered.
+     */
+    @MainThread
+    public void setMarkdown(@NonNull TextView textView, @Nullable String markdown) {
+        if (TextUtils.isEmpty(markdown)) {
+            textView.setText(markdown);
+            return;
+        }
+
+        var spanned = cache.get(markdown);
+        if (spanned == null) {
+            spanned = markwon.toMarkdown(markdown);
+            cache.put(markdown, spanned);
+        }
+
+        markwon.setParsedMarkdown(textView, spanned);
+    }
+
+    /**
+     * @see ComponentCallbacks2#onTrimMemory(int)
+     */
+    public static void onTrimMemory(int level) {
+        final var cache = instance == null ? null : instance.cache;
+        if (cache == null) {
+            return;
+        }
+
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) {
+            Log.i(TAG, "Trim memory level " + level + ": Clearing cache");
+            cache.evictAll();
+        } else if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) {
+            Log.i(TAG, "Trim memory level " + level + ": Trimming cache to half");
+            cache.trimToSize(cache.maxSize() / 2);
+        }
+    }
+}
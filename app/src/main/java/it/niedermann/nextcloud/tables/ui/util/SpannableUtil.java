@@ -5,15 +5,20 @@ import android.content.res.Resources;
 import android.graphics.Typeface;
 import android.text.Spannable;
 import android.text.SpannableString;
+import android.text.SpannableStringBuilder;
 import android.text.Spanned;
 import android.text.method.LinkMovementMethod;
+import android.text.style.RelativeSizeSpan;
 import android.text.style.StyleSpan;
 import android.text.style.URLSpan;
 import android.widget.TextView;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 import androidx.annotation.StringRes;
 
+import java.text.NumberFormat;
+
 public class SpannableUtil {
     
     private SpannableUtil() {
@@ -38,6 +43,21 @@ public class SpannableUtil {
         return spannable;
     }
 
+    /**
+     * Appends the given <code>count</code> in a smaller size, e.g. as badge of a menu item
+     */
+    public static CharSequence withCount(@NonNull CharSequence text, @Nullable Long count) {
+        if (count == null) {
+            return text;
+        }
+
+        final var spannable = new SpannableStringBuilder(text).append("  ");
+        final var start = spannable.length();
+        spannable.append(NumberFormat.getIntegerInstance().format(count));
+        spannable.setSpan(new RelativeSizeSpan(0.8f), start, spannable.length(), Spanned.SPAN_EXCLUSIVE_EXCLUSIVE);
+        return spannable;
+    }
+
     public static void setTextWithURL(@NonNull TextView textView, @NonNull Resources resources, @StringRes int containerTextId, @StringRes int linkLabelId, @StringRes int urlId) {
         final String linkLabel = resources.getString(linkLabelId);
         final String finalText = resources.getString(containerTextId, linkLabel);
@@ -0,0 +1,56 @@
+package it.niedermann.nextcloud.tables.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+
+public class CellFormatterTest {
+
+    private CellFormatter formatter;
+
+    @Before
+    public void setup() {
+        this.formatter = new CellFormatter();
+    }
+
+    @Test
+    public void format_shouldApplyNumberPrefixAndSuffix() {
+        final var column = column(1, "number", "");
+        column.setNumberPrefix("$");
+        column.setNumberSuffix(" net");
+
+        Assert.assertEquals("$42 net", formatter.format(EDataType.NUMBER, column, "42"));
+        Assert.assertEquals("$4.2 net", formatter.format(EDataType.NUMBER, column, "4.2"));
+    }
+
+    @Test
+    public void format_shouldFallBackToNumberDefault() {
+        final var column = column(1, "number", "");
+        column.setNumberPrefix("");
+        column.setNumberSuffix("");
+
+        Assert.assertNull(formatter.format(EDataType.NUMBER, column, null));
+
+        column.setNumberDefault(3d);
+        Assert.assertEquals("3.0", formatter.format(EDataType.NUMBER, column, null));
+    }
+
+    @Test
+    public void format_shouldKeepValuesOfNotFormattedTypes() {
+        final var column = column(1, "text", "line");
+
+        Assert.assertFalse(formatter.isFormatted(EDataType.TEXT_LINE));
+        Assert.assertEquals("2024-01-01", formatter.format(EDataType.TEXT_LINE, column, "2024-01-01"));
+        Assert.assertNull(formatter.format(EDataType.TEXT_LINE, column, null));
+    }
+
+    private static Column column(long id, String type, String subtype) {
+        final var column = new Column();
+        column.setId(id);
+        column.setType(type);
+        column.setSubtype(subtype);
+        return column;
+    }
+}
@@ -0,0 +1,57 @@
+package it.niedermann.nextcloud.tables.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Locale;
+
+import it.niedermann.nextcloud.tables.database.entity.ColumnAggregate;
+
+public class ColumnSummariesTest {
+
+    private ColumnSummaries columnSummaries;
+
+    @Before
+    public void setup() {
+        this.columnSummaries = new ColumnSummaries(Locale.US);
+    }
+
+    @Test
+    public void summarize_shouldRenderNumberAggregates() {
+        final var summaries = columnSummaries.summarize(List.of(
+                aggregate(1, 3, 10, 1d, 6d),
+                aggregate(2, 0, 0, null, null)
+        ), List.of());
+
+        Assert.assertEquals(1, summaries.size());
+        Assert.assertEquals("Σ 10 · ⌀ 3.33 · 1–6", summaries.get(1L));
+    }
+
+    @Test
+    public void summarize_shouldRenderMostFrequentSelectionOptions() {
+        final var summaries = columnSummaries.summarize(List.of(), List.of(
+                new SelectionOptionCount(5, "Done", 7),
+                new SelectionOptionCount(5, "Open", 3),
+                new SelectionOptionCount(6, "Yes", 1),
+                new SelectionOptionCount(5, "Blocked", 2),
+                new SelectionOptionCount(5, "Waiting", 1),
+                new SelectionOptionCount(5, "Unused", 0),
+                new SelectionOptionCount(6, "No", 0)
+        ));
+
+        Assert.assertEquals("Done 7 · Open 3 · Blocked 2 · …", summaries.get(5L));
+        Assert.assertEquals("Yes 1", summaries.get(6L));
+    }
+
+    private static ColumnAggregate aggregate(long columnId, long numberCount, double sum, Double min, Double max) {
+        final var aggregate = new ColumnAggregate();
+        aggregate.setColumnId(columnId);
+        aggregate.setNumberCount(numberCount);
+        aggregate.setSumValue(sum);
+        aggregate.setMinValue(min);
+        aggregate.setMaxValue(max);
+        return aggregate;
+    }
+}
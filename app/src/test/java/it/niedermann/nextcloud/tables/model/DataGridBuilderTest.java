@@ -0,0 +1,135 @@
+package it.niedermann.nextcloud.tables.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.database.entity.Column;
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.database.entity.Row;
+
+public class DataGridBuilderTest {
+
+    private DataGridBuilder gridBuilder;
+
+    @Before
+    public void setup() {
+        this.gridBuilder = new DataGridBuilder();
+    }
+
+    @Test
+    public void build_shouldHandleEmptyInputs() {
+        final var result = gridBuilder.build(Collections.emptyList(), Collections.emptyList(), Collections.emptyList());
+        Assert.assertEquals(0, result.getRowCount());
+        Assert.assertEquals(0, result.getColumnCount());
+    }
+
+    @Test
+    public void build_shouldPlaceDataInRowAndColumnOrder() {
+        final var rows = List.of(row(10), row(20));
+        final var columns = List.of(column(2), column(1));
+        final var data = List.of(
+                data(20, 1, "a"),
+                data(10, 2, "b"),
+                data(10, 1, "c")
+        );
+
+        final var result = gridBuilder.build(rows, columns, data);
+
+        Assert.assertEquals(2, result.getRowCount());
+        Assert.assertEquals(2, result.getColumnCount());
+        Assert.assertEquals(10, result.getRowId(0));
+        Assert.assertEquals(20, result.getRowId(1));
+        Assert.assertEquals("b", result.getValue(0, 0));
+        Assert.assertEquals("c", result.getValue(0, 1));
+        Assert.assertNull(result.getValue(1, 0));
+        Assert.assertEquals("a", result.getValue(1, 1));
+    }
+
+    @Test
+    public void build_shouldIgnoreDataOfUnknownRowsAndColumns() {
+        final var result = gridBuilder.build(List.of(row(10)), List.of(column(1)), List.of(
+                data(99, 1, "a"),
+                data(10, 99, "b")
+        ));
+
+        Assert.assertEquals(1, result.getRowCount());
+        Assert.assertNull(result.getValue(0, 0));
+    }
+
+    @Test
+    public void build_shouldShareRepeatedValues() {
+        final var result = gridBuilder.build(List.of(row(10), row(20)), List.of(column(1)), List.of(
+                data(10, 1, new String("a")),
+                data(20, 1, new String("a"))
+        ));
+
+        Assert.assertSame(result.getValue(0, 0), result.getValue(1, 0));
+    }
+
+    @Test
+    public void getRow_shouldNotModifyGrid() {
+        final var result = gridBuilder.build(List.of(row(10)), List.of(column(1), column(2)), List.of(
+                data(10, 1, "a")
+        ));
+
+        final var row = result.getRow(0);
+        row.set(1, "b");
+
+        Assert.assertEquals(List.of("a", "b"), row);
+        Assert.assertEquals("a", result.getValue(0, 0));
+        Assert.assertNull(result.getValue(0, 1));
+    }
+
+    @Test
+    public void build_shouldFormatValuesOfFormattedColumns() {
+        final var number = column(1);
+        number.setType("number");
+        number.setSubtype("");
+        number.setNumberPrefix("");
+        number.setNumberSuffix("%");
+        number.setNumberDefault(0d);
+        final var text = column(2);
+        text.setType("text");
+        text.setSubtype("line");
+        final var schema = new TableSchema(List.of(number, text));
+
+        final var result = gridBuilder.build(List.of(row(10), row(20), row(30)), schema, List.of(
+                data(10, 1, "5"),
+                data(20, 1, "5"),
+                data(10, 2, "5")
+        ), new CellFormatter());
+
+        Assert.assertEquals(3, result.getRowCount());
+        Assert.assertEquals(20, result.getRowId(1));
+        Assert.assertEquals("5%", result.getValue(0, 0));
+        Assert.assertEquals("5%", result.getValue(1, 0));
+        Assert.assertEquals("0.0%", result.getValue(2, 0));
+        Assert.assertEquals("5", result.getValue(0, 1));
+        Assert.assertNull(result.getValue(1, 1));
+        Assert.assertSame(result.getValue(0, 0), result.getValue(1, 0));
+    }
+
+    private static Row row(long id) {
+        final var row = new Row();
+        row.setId(id);
+        return row;
+    }
+
+    private static Column column(long id) {
+        final var column = new Column();
+        column.setId(id);
+        return column;
+    }
+
+    private static Data data(long rowId, long columnId, String value) {
+        final var data = new Data();
+        data.setRowId(rowId);
+        data.setColumnId(columnId);
+        data.setValue(value);
+        return data;
+    }
+}
@@ -0,0 +1,48 @@
+package it.niedermann.nextcloud.tables.model;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.database.entity.SelectionOption;
+
+public class SelectionDictionaryTest {
+
+    private SelectionDictionary dictionary;
+
+    @Before
+    public void setup() {
+        this.dictionary = new SelectionDictionary(List.of(
+                selectionOption(1, 10, "Foo"),
+                selectionOption(1, 11, "Bar"),
+                selectionOption(2, 10, "Baz")
+        ));
+    }
+
+    @Test
+    public void getLabel_shouldResolveLabelsPerColumn() {
+        Assert.assertEquals("Foo", dictionary.getLabel(1, 10));
+        Assert.assertEquals("Baz", dictionary.getLabel(2, 10));
+        Assert.assertEquals("", dictionary.getLabel(2, 11));
+        Assert.assertEquals("", dictionary.getLabel(3, 10));
+    }
+
+    @Test
+    public void format_shouldJoinLabelsOrderedByRemoteId() {
+        Assert.assertEquals("", dictionary.format(1, null));
+        Assert.assertEquals("", dictionary.format(1, ""));
+        Assert.assertEquals("Bar", dictionary.format(1, "11"));
+        Assert.assertEquals("Foo, Bar", dictionary.format(1, "11,10"));
+        Assert.assertSame(dictionary.format(1, "11,10"), dictionary.format(1, "11,10"));
+    }
+
+    private static SelectionOption selectionOption(long columnId, long remoteId, String label) {
+        final var selectionOption = new SelectionOption();
+        selectionOption.setColumnId(columnId);
+        selectionOption.setRemoteId(remoteId);
+        selectionOption.setLabel(label);
+        return selectionOption;
+    }
+}
@@ -0,0 +1,149 @@
+package it.niedermann.nextcloud.tables.repository;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import android.content.Context;
+
+import androidx.test.core.app.ApplicationProvider;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+import com.nextcloud.android.sso.model.ocs.OcsResponse;
+import com.nextcloud.android.sso.model.ocs.OcsUser;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.MockedStatic;
+import org.robolectric.RobolectricTestRunner;
+
+import java.time.Duration;
+
+import it.niedermann.nextcloud.tables.database.TablesDatabase;
+import it.niedermann.nextcloud.tables.database.dao.AccountDao;
+import it.niedermann.nextcloud.tables.database.entity.Account;
+import it.niedermann.nextcloud.tables.model.NextcloudVersion;
+import it.niedermann.nextcloud.tables.model.TablesVersion;
+import it.niedermann.nextcloud.tables.remote.ApiProvider;
+import it.niedermann.nextcloud.tables.remote.api.OcsAPI;
+import it.niedermann.nextcloud.tables.remote.model.CapabilitiesResponse;
+import okhttp3.Headers;
+import retrofit2.Call;
+import retrofit2.Response;
+
+@RunWith(RobolectricTestRunner.class)
+public class AccountRepositoryTest {
+
+    private static final String CAPABILITIES = "{\"ocs\": {" +
+            "\"meta\": {\"status\": \"ok\", \"statuscode\": 200}, " +
+            "\"data\": {" +
+            "\"version\": {\"major\": 29, \"minor\": 0, \"micro\": 1, \"string\": \"29.0.1\"}, " +
+            "\"capabilities\": {\"theming\": {\"color\": \"#0082c9\"}, \"tables\": {\"enabled\": true, \"version\": \"0.7.0\"}}" +
+            "}}}";
+    private static final String USER = "{\"ocs\": {" +
+            "\"meta\": {\"status\": \"ok\", \"statuscode\": 200}, " +
+            "\"data\": {\"id\": \"alice\", \"displayname\": \"Alice\", \"displayName\": \"Alice\"}" +
+            "}}";
+
+    private final Gson gson = new Gson();
+    private MockedStatic<ApiProvider> apiProviderStatic;
+    private OcsAPI api;
+    private TablesDatabase db;
+    private AccountDao accountDao;
+    private AccountRepository accountRepository;
+    private Account account;
+
+    @Before
+    public void setup() {
+        final Context context = ApplicationProvider.getApplicationContext();
+        api = mock(OcsAPI.class);
+        db = mock(TablesDatabase.class);
+        accountDao = mock(AccountDao.class);
+        when(db.getAccountDao()).thenReturn(accountDao);
+
+        @SuppressWarnings("unchecked") final ApiProvider<OcsAPI> apiProvider = mock(ApiProvider.class);
+        when(apiProvider.getApi()).thenReturn(api);
+        apiProviderStatic = mockStatic(ApiProvider.class);
+        apiProviderStatic.when(() -> ApiProvider.getOcsApiProvider(any(), any())).thenReturn(apiProvider);
+
+        accountRepository = new AccountRepository(context, Duration.ofMinutes(30), db);
+
+        account = new Account("https://nextcloud.example.com", "alice", "alice@nextcloud.example.com", "Alice");
+        account.setId(1);
+        account.setETag("\"capabilities\"");
+        account.setNextcloudVersion(NextcloudVersion.parse("29.0.1"));
+        account.setTablesVersion(TablesVersion.parse("0.7.0"));
+    }
+
+    @After
+    public void tearDown() {
+        apiProviderStatic.close();
+    }
+
+    @Test
+    public void synchronizeAccount_shouldSkipUserIfCapabilitiesHaveNotBeenModified() throws Exception {
+        mockCapabilities(304, null);
+
+        accountRepository.synchronizeAccount(account);
+
+        verify(api).getCapabilities("\"capabilities\"");
+        verify(api, never()).getUser(anyString());
+        verify(db, never()).getAccountDao();
+    }
+
+    @Test
+    public void synchronizeAccount_shouldSkipRequestsWhileCapabilitiesAreFresh() throws Exception {
+        mockCapabilities(304, null);
+
+        accountRepository.synchronizeAccount(account);
+        accountRepository.synchronizeAccount(account);
+
+        verify(api, times(1)).getCapabilities(anyString());
+        verify(api, never()).getUser(anyString());
+    }
+
+    @Test
+    public void synchronizeAccount_shouldUpdateAccountIfCapabilitiesChanged() throws Exception {
+        account.setTablesVersion(TablesVersion.parse("0.6.0"));
+        account.setDisplayName("Alice (old)");
+        mockCapabilities(200, gson.fromJson(CAPABILITIES, new TypeToken<OcsResponse<CapabilitiesResponse>>() {
+        }.getType()));
+        mockUser(gson.fromJson(USER, new TypeToken<OcsResponse<OcsUser>>() {
+        }.getType()));
+
+        accountRepository.synchronizeAccount(account);
+
+        verify(api).getUser("alice");
+        verify(accountDao).update(account);
+        Assert.assertEquals(TablesVersion.parse("0.7.0"), account.getTablesVersion());
+        Assert.assertEquals("Alice", account.getDisplayName());
+        Assert.assertEquals("\"changed\"", account.getETag());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockCapabilities(int code, OcsResponse<CapabilitiesResponse> body) throws Exception {
+        final Call<OcsResponse<CapabilitiesResponse>> call = mock(Call.class);
+        final Response<OcsResponse<CapabilitiesResponse>> response = mock(Response.class);
+        when(response.code()).thenReturn(code);
+        when(response.body()).thenReturn(body);
+        when(response.headers()).thenReturn(Headers.of("ETag", "\"changed\""));
+        when(call.execute()).thenReturn(response);
+        when(api.getCapabilities(anyString())).thenReturn(call);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void mockUser(OcsResponse<OcsUser> body) throws Exception {
+        final Call<OcsResponse<OcsUser>> call = mock(Call.class);
+        when(call.execute()).thenReturn(Response.success(body));
+        when(api.getUser(anyString())).thenReturn(call);
+    }
+}
@@ -0,0 +1,71 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+public class LongLongMapTest {
+
+    private LongLongMap map;
+
+    @Before
+    public void setup() {
+        this.map = new LongLongMap();
+    }
+
+    @Test
+    public void get_shouldReturnNoValueForMissingKeys() {
+        Assert.assertEquals(LongLongMap.NO_VALUE, map.get(1));
+        Assert.assertFalse(map.containsKey(1));
+        Assert.assertTrue(map.isEmpty());
+    }
+
+    @Test
+    public void put_shouldReplaceExistingValues() {
+        map.put(0, 1);
+        map.put(-5, 2);
+        map.put(0, 3);
+
+        Assert.assertEquals(2, map.size());
+        Assert.assertEquals(3, map.get(0));
+        Assert.assertEquals(2, map.get(-5));
+    }
+
+    @Test
+    public void put_shouldGrowBeyondInitialCapacity() {
+        for (long key = 1; key <= 10_000; key++) {
+            map.put(key << 20, key);
+        }
+
+        Assert.assertEquals(10_000, map.size());
+        for (long key = 1; key <= 10_000; key++) {
+            Assert.assertEquals(key, map.get(key << 20));
+        }
+        Assert.assertFalse(map.containsKey(10_001L << 20));
+    }
+
+    @Test
+    public void constructor_shouldCopyMap() {
+        final var copy = new LongLongMap(Map.of(1L, 10L, 2L, 20L));
+
+        Assert.assertEquals(2, copy.size());
+        Assert.assertEquals(10, copy.get(1));
+        Assert.assertEquals(20, copy.get(2));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void put_shouldRejectNoValue() {
+        map.put(1, LongLongMap.NO_VALUE);
+    }
+
+    @Test
+    public void clear_shouldRemoveAllEntries() {
+        map.put(1, 1);
+        map.clear();
+
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertFalse(map.containsKey(1));
+    }
+}
@@ -0,0 +1,80 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.List;
+
+import it.niedermann.nextcloud.tables.model.SearchResult;
+
+public class SearchQueryUtilTest {
+
+    private SearchQueryUtil searchQueryUtil;
+
+    @Before
+    public void setup() {
+        this.searchQueryUtil = new SearchQueryUtil();
+    }
+
+    @Test
+    public void toMatchQuery_shouldIgnoreEmptyInput() {
+        Assert.assertNull(searchQueryUtil.toMatchQuery(null));
+        Assert.assertNull(searchQueryUtil.toMatchQuery(""));
+        Assert.assertNull(searchQueryUtil.toMatchQuery("  - \"* "));
+    }
+
+    @Test
+    public void toMatchQuery_shouldMatchAllTermsAsPrefix() {
+        Assert.assertEquals("foo*", searchQueryUtil.toMatchQuery("foo"));
+        Assert.assertEquals("foo* bar*", searchQueryUtil.toMatchQuery(" foo  bar "));
+        Assert.assertEquals("Grüße* 42*", searchQueryUtil.toMatchQuery("Grüße, 42"));
+    }
+
+    @Test
+    public void toMatchQuery_shouldStripQuerySyntax() {
+        Assert.assertEquals("foo* bar*", searchQueryUtil.toMatchQuery("\"foo\" -bar*"));
+        Assert.assertEquals("content* foo*", searchQueryUtil.toMatchQuery("content:foo"));
+        Assert.assertEquals("foo* OR* bar*", searchQueryUtil.toMatchQuery("foo OR bar"));
+    }
+
+    @Test
+    public void score_shouldWeightHitsByRarity() {
+        Assert.assertEquals(0, searchQueryUtil.score(null), 0);
+        // 1 phrase, 2 columns: no hit in the first, 2 of 4 hits of all rows in the second column
+        Assert.assertEquals(0.5, searchQueryUtil.score(matchInfo(1, 2, 0, 5, 2, 2, 4, 1)), 0);
+    }
+
+    @Test
+    public void rank_shouldSortByScoreAndKeepOrderOfTies() {
+        final var results = new ArrayList<>(List.of(
+                searchResult(1, matchInfo(1, 1, 1, 4, 1)),
+                searchResult(2, matchInfo(1, 1, 2, 4, 1)),
+                searchResult(3, matchInfo(1, 1, 1, 4, 1))
+        ));
+
+        searchQueryUtil.rank(results);
+
+        Assert.assertEquals(2, results.get(0).getDataId());
+        Assert.assertEquals(1, results.get(1).getDataId());
+        Assert.assertEquals(3, results.get(2).getDataId());
+    }
+
+    private static byte[] matchInfo(int... values) {
+        final var buffer = ByteBuffer.allocate(values.length * Integer.BYTES).order(ByteOrder.nativeOrder());
+        for (final var value : values) {
+            buffer.putInt(value);
+        }
+        return buffer.array();
+    }
+
+    private static SearchResult searchResult(long dataId, byte[] matchInfo) {
+        final var result = new SearchResult();
+        result.setDataId(dataId);
+        result.setMatchInfo(matchInfo);
+        return result;
+    }
+}
@@ -0,0 +1,85 @@
+package it.niedermann.nextcloud.tables.repository.util;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import it.niedermann.nextcloud.tables.database.entity.Data;
+import it.niedermann.nextcloud.tables.model.EDataType;
+
+public class TypedValueUtilTest {
+
+    private TypedValueUtil typedValueUtil;
+
+    @Before
+    public void setup() {
+        this.typedValueUtil = new TypedValueUtil();
+    }
+
+    @Test
+    public void fill_shouldDeriveNumbers() {
+        final var data = data("4.5");
+        typedValueUtil.fill(EDataType.NUMBER, data);
+
+        Assert.assertEquals(4.5, data.getNumberValue(), 0);
+        Assert.assertNull(data.getInstantValue());
+        Assert.assertNull(data.getSortKey());
+    }
+
+    @Test
+    public void fill_shouldNotDeriveNumbersOfChecks() {
+        final var data = data("true");
+        typedValueUtil.fill(EDataType.SELECTION_CHECK, data);
+
+        Assert.assertNull(data.getNumberValue());
+    }
+
+    @Test
+    public void fill_shouldDeriveInstants() {
+        final var dateTime = data("1970-01-02T00:00:01");
+        typedValueUtil.fill(EDataType.DATETIME_DATETIME, dateTime);
+        Assert.assertEquals(Long.valueOf(86_401_000L), dateTime.getInstantValue());
+
+        final var date = data("1970-01-02");
+        typedValueUtil.fill(EDataType.DATETIME_DATE, date);
+        Assert.assertEquals(Long.valueOf(86_400_000L), date.getInstantValue());
+
+        final var time = data("00:01:00");
+        typedValueUtil.fill(EDataType.DATETIME_TIME, time);
+        Assert.assertEquals(Long.valueOf(60_000L), time.getInstantValue());
+    }
+
+    @Test
+    public void fill_shouldDeriveSortKeys() {
+        final var data = data("  Élan Vital ");
+        typedValueUtil.fill(EDataType.TEXT_LINE, data);
+
+        Assert.assertEquals("elan vital", data.getSortKey());
+        Assert.assertNull(data.getNumberValue());
+    }
+
+    @Test
+    public void fill_shouldResetTypedValuesOfEmptyValues() {
+        final var data = data(null);
+        data.setNumberValue(1d);
+        data.setInstantValue(1L);
+        data.setSortKey("a");
+
+        typedValueUtil.fill(EDataType.NUMBER, data);
+
+        Assert.assertNull(data.getNumberValue());
+        Assert.assertNull(data.getInstantValue());
+        Assert.assertNull(data.getSortKey());
+    }
+
+    @Test
+    public void toSortKey_shouldLimitLength() {
+        Assert.assertEquals(64, typedValueUtil.toSortKey("a".repeat(100)).length());
+    }
+
+    private static Data data(String value) {
+        final var data = new Data();
+        data.setValue(value);
+        return data;
+    }
+}